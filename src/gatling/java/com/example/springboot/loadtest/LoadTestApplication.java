@@ -0,0 +1,143 @@
+package com.example.springboot.loadtest;
+
+import com.example.springboot.SpringBootTestingApplication;
+import com.example.springboot.TestClassExcludeFilter;
+import com.example.springboot.integration.AbstractContainerBaseTest;
+import com.example.springboot.model.Employee;
+import com.example.springboot.repository.EmployeeRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.DockerClientFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Boots the application on a random port in the load test's JVM and seeds it. The database comes from
+// -Dloadtest.database: h2 (embedded, MySQL mode), mysql (the Testcontainers MySQL of the integration tests)
+// or auto (default), which picks mysql when Docker is available. Both start empty and get the Flyway schema.
+final class LoadTestApplication implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final String database;
+    private final List<Map<String, Object>> seededEmployees;
+
+    private LoadTestApplication(ConfigurableApplicationContext context, String database,
+                                List<Map<String, Object>> seededEmployees) {
+        this.context = context;
+        this.database = database;
+        this.seededEmployees = seededEmployees;
+    }
+
+    static LoadTestApplication start(int employees) {
+        String database = selectDatabase();
+        String[] args = Stream.concat(Stream.of(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                // duplicate-email creates end in a 500 today, keep their stack traces out of the output
+                "--logging.level.org.apache.catalina.core.ContainerBase=OFF"), dataSourceArgs(database))
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                // the test classes are on the classpath, keep their nested @Configuration classes out of the scan
+                .initializers(TestClassExcludeFilter.initializer())
+                .run(args);
+
+        List<Employee> seed = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            seed.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + (i % 100))
+                    .email("seed" + i + "@loadtest.example.com")
+                    .build());
+        }
+        List<Map<String, Object>> seeded = context.getBean(EmployeeRepository.class).saveAll(seed).stream()
+                .map(employee -> Map.<String, Object>of(
+                        "id", employee.getId(),
+                        "email", employee.getEmail(),
+                        "lastName", employee.getLastName()))
+                .collect(Collectors.toList());
+        return new LoadTestApplication(context, database, seeded);
+    }
+
+    private static String selectDatabase() {
+        String database = System.getProperty("loadtest.database", "auto");
+        if (database.equals("auto")) {
+            return DockerClientFactory.instance().isDockerAvailable() ? "mysql" : "h2";
+        }
+        return database;
+    }
+
+    private static Stream<String> dataSourceArgs(String database) {
+        switch (database) {
+            case "h2":
+                return Stream.of(
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=");
+            case "mysql":
+                // started on first use, removed by Testcontainers when the JVM exits
+                return Stream.of(
+                        "--spring.datasource.url=" + AbstractContainerBaseTest.MY_SQL_CONTAINER.getJdbcUrl(),
+                        "--spring.datasource.username=" + AbstractContainerBaseTest.MY_SQL_CONTAINER.getUsername(),
+                        "--spring.datasource.password=" + AbstractContainerBaseTest.MY_SQL_CONTAINER.getPassword());
+            default:
+                throw new IllegalArgumentException("loadtest.database must be h2, mysql or auto, was " + database);
+        }
+    }
+
+    // exercises every endpoint of the workload before the measured run, so JIT compilation, the connection pool
+    // and the caches are warm and the percentiles describe steady state rather than the first seconds
+    void warmUp(int requests) {
+        HttpClient client = HttpClient.newHttpClient();
+        String employees = baseUrl() + "/api/employees";
+        try {
+            for (int i = 0; i < requests; i++) {
+                Map<String, Object> seeded = seededEmployees.get(i % seededEmployees.size());
+                send(client, HttpRequest.newBuilder(URI.create(employees + "/" + seeded.get("id"))));
+                send(client, HttpRequest.newBuilder(URI.create(employees + "?size=20&page=" + (i % 10))));
+                send(client, HttpRequest.newBuilder(URI.create(employees + "/search?lastName=" + seeded.get("lastName"))));
+                send(client, HttpRequest.newBuilder(URI.create(employees + "/by-email?email=" + seeded.get("email"))));
+                if (i % 10 == 0) {
+                    String json = "{\"firstName\":\"Warm\",\"lastName\":\"Up\",\"email\":\"warmup" + i + "@loadtest.example.com\"}";
+                    send(client, HttpRequest.newBuilder(URI.create(employees))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(json)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void send(HttpClient client, HttpRequest.Builder request) throws IOException, InterruptedException {
+        client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    String database() {
+        return database;
+    }
+
+    // id, email and lastName of every seeded employee, as Gatling feeder records
+    List<Map<String, Object>> seededEmployees() {
+        return seededEmployees;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
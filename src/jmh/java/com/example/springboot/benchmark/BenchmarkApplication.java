@@ -0,0 +1,67 @@
+package com.example.springboot.benchmark;
+
+import com.example.springboot.SpringBootTestingApplication;
+import com.example.springboot.TestClassExcludeFilter;
+import com.example.springboot.model.Employee;
+import com.example.springboot.repository.EmployeeRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// boots the application on a random port against an embedded H2 in MySQL mode (or -Dbenchmark.datasource.url) and seeds it
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(int employees, String... extraArgs) {
+        // on MySQL Hibernate creates and drops the schema so repeated runs start empty, H2 is gone with the JVM anyway
+        String[] args = extraArgs;
+        if (System.getProperty("benchmark.datasource.url") != null) {
+            args = Stream.concat(Stream.of("--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=create-drop"),
+                    Stream.of(extraArgs)).toArray(String[]::new);
+        }
+        ConfigurableApplicationContext context = boot(args);
+
+        List<Employee> seed = new ArrayList<>(employees);
+        for (long i = 1; i <= employees; i++) {
+            seed.add(BenchmarkData.newEmployee(i));
+        }
+        context.getBean(EmployeeRepository.class).saveAll(seed);
+        return context;
+    }
+
+    static ConfigurableApplicationContext boot(String... extraArgs) {
+        // command-line arguments, so they win over application.properties
+        String[] args = Stream.of(Stream.of(
+                "--server.port=0",
+                "--logging.level.root=WARN"), dataSourceArgs(), Stream.of(extraArgs))
+                .flatMap(s -> s).toArray(String[]::new);
+        return new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                // the test classes are on the classpath, keep their nested @Configuration classes out of the scan
+                .initializers(TestClassExcludeFilter.initializer())
+                .run(args);
+    }
+
+    // embedded H2 in MySQL mode unless -Dbenchmark.datasource.url points at a real (empty, disposable) MySQL schema
+    private static Stream<String> dataSourceArgs() {
+        String url = System.getProperty("benchmark.datasource.url");
+        if (url != null) {
+            return Stream.of(
+                    "--spring.datasource.url=" + url,
+                    "--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "root"),
+                    "--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""));
+        }
+        return Stream.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=");
+    }
+
+    static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/employees";
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.springboot.benchmark;
+
+import com.example.springboot.model.Employee;
+
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Employee employee(long i) {
+        return Employee.builder()
+                .id(i)
+                .firstName("First" + i)
+                .lastName("Last" + (i % 500))
+                .email("employee" + i + ".astekgroup.ma")
+                .version(0L)
+                .build();
+    }
+
+    static Employee newEmployee(long i) {
+        Employee employee = employee(i);
+        employee.setId(0);
+        employee.setVersion(null);
+        return employee;
+    }
+}
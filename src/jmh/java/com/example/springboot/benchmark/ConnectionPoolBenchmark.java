@@ -0,0 +1,69 @@
+package com.example.springboot.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// load test of the Hikari pool settings: 64 concurrent clients on the uncached keyset endpoint, which needs
+// a connection per request. "hikari-defaults" is HikariCP out of the box (10 connections, 30s timeout),
+// "tuned" is application.properties as shipped. Time spent waiting for a connection is printed at tear down
+// from the hikaricp.connections.acquire timer. The driver properties only show against MySQL:
+// add -Djmh.args="ConnectionPool -jvmArgsAppend -Dbenchmark.datasource.url=jdbc:mysql://..." to run against one.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+public class ConnectionPoolBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+
+    @Param({"hikari-defaults", "tuned"})
+    private String pool;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup
+    public void setup() {
+        if (pool.equals("hikari-defaults")) {
+            context = BenchmarkApplication.start(EMPLOYEES,
+                    "--spring.datasource.hikari.maximum-pool-size=10",
+                    "--spring.datasource.hikari.connection-timeout=30000",
+                    "--spring.datasource.hikari.leak-detection-threshold=0");
+        } else {
+            context = BenchmarkApplication.start(EMPLOYEES);
+        }
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = BenchmarkApplication.baseUrl(context);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Timer acquire = context.getBean(MeterRegistry.class).find("hikaricp.connections.acquire").timer();
+        if (acquire != null) {
+            System.out.printf("%n[%s] connection acquire: count=%d mean=%.3fms max=%.3fms%n", pool, acquire.count(),
+                    acquire.mean(TimeUnit.MILLISECONDS), acquire.max(TimeUnit.MILLISECONDS));
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public int keysetPage() throws IOException, InterruptedException {
+        long afterId = ThreadLocalRandom.current().nextLong(0, EMPLOYEES);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "?afterId=" + afterId + "&limit=20")).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
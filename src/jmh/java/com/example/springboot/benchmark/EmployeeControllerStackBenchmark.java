@@ -0,0 +1,79 @@
+package com.example.springboot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// the whole stack over HTTP: Tomcat, EmployeeController, caches, EmployeeServiceImpl, Hibernate and an embedded H2 in MySQL mode
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class EmployeeControllerStackBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private String listETag;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        context = BenchmarkApplication.start(EMPLOYEES);
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = BenchmarkApplication.baseUrl(context);
+        listETag = send(HttpRequest.newBuilder(URI.create(baseUrl)).GET().build())
+                .headers().firstValue("ETag").orElseThrow();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, EMPLOYEES + 1);
+    }
+
+    @Benchmark
+    public int getEmployeeById() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + randomId())).GET().build()).statusCode();
+    }
+
+    @Benchmark
+    public int getEmployeesPage() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "?size=20&page="
+                + ThreadLocalRandom.current().nextInt(0, EMPLOYEES / 20))).GET().build()).statusCode();
+    }
+
+    @Benchmark
+    public int getEmployeesNotModified() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl)).header("If-None-Match", listETag).GET().build()).statusCode();
+    }
+
+    @Benchmark
+    public int updateEmployee() throws IOException, InterruptedException {
+        long id = randomId();
+        String body = "{\"firstName\":\"First" + id + "\",\"lastName\":\"Last" + id + "\",\"email\":\"employee" + id + ".astekgroup.ma\"}";
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build()).statusCode();
+    }
+}
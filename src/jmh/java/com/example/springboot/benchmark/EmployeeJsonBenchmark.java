@@ -0,0 +1,47 @@
+package com.example.springboot.benchmark;
+
+import com.example.springboot.model.Employee;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON serialization cost of what EmployeeController writes: one employee and a page/list of them
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeJsonBenchmark {
+
+    @Param({"20", "1000", "100000"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private Employee employee;
+    private List<Employee> employees;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        employee = BenchmarkData.employee(1);
+        employees = new ArrayList<>(listSize);
+        for (int i = 1; i <= listSize; i++) {
+            employees.add(BenchmarkData.employee(i));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeEmployee() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployeeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employees);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.springboot.benchmark;
+
+import com.example.springboot.model.Employee;
+import com.example.springboot.repository.EmployeeRepository;
+import com.example.springboot.service.EmployeeService;
+import com.example.springboot.service.impl.EmployeeServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// EmployeeServiceImpl on top of an in-memory repository: measures the service's own overhead, not the database
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class EmployeeServiceBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+
+    private EmployeeService employeeService;
+    private AtomicLong newEmployees;
+
+    @Setup
+    public void setup() {
+        EmployeeRepository employeeRepository = InMemoryEmployeeRepository.create();
+        // no caching proxy here, and the EntityManager is only needed by export and batch inserts
+        employeeService = new EmployeeServiceImpl(employeeRepository, null, new NoOpCacheManager(),
+                TransactionOperations.withoutTransaction(), new SimpleMeterRegistry());
+        for (long i = 1; i <= EMPLOYEES; i++) {
+            employeeRepository.save(BenchmarkData.newEmployee(i));
+        }
+        newEmployees = new AtomicLong(EMPLOYEES);
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, EMPLOYEES + 1);
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeById() {
+        return employeeService.getEmployeeById(randomId());
+    }
+
+    @Benchmark
+    public Slice<Employee> getEmployeesPage() {
+        return employeeService.getEmployees(ThreadLocalRandom.current().nextInt(0, EMPLOYEES / 20), 20);
+    }
+
+    @Benchmark
+    public List<Employee> getEmployeesAfter() {
+        return employeeService.getEmployeesAfter(randomId(), 21);
+    }
+
+    @Benchmark
+    public Optional<Employee> updateEmployee() {
+        long id = randomId();
+        return employeeService.updateEmployee(id, BenchmarkData.employee(id), null);
+    }
+
+    @Benchmark
+    public Employee saveEmployee() {
+        return employeeService.saveEmployee(BenchmarkData.newEmployee(newEmployees.incrementAndGet()));
+    }
+}
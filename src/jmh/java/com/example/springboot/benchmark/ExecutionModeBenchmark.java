@@ -0,0 +1,68 @@
+package com.example.springboot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// load test of app.execution.mode: 64 concurrent clients against 16 Tomcat worker threads,
+// reported both as throughput and as a latency distribution (p50/p90/p99... in the JSON result).
+// "virtual" needs a Java 21+ runtime; on older JDKs run with -Djmh.args="ExecutionMode -p mode=platform".
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+public class ExecutionModeBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start(EMPLOYEES,
+                "--app.execution.mode=" + mode,
+                "--server.tomcat.threads.max=16");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = BenchmarkApplication.baseUrl(context);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // 9 reads for every write, roughly our production mix
+    @Benchmark
+    public int mixedReadWrite() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = random.nextLong(1, EMPLOYEES + 1);
+        HttpRequest request;
+        if (random.nextInt(10) == 0) {
+            String body = "{\"firstName\":\"First" + id + "\",\"lastName\":\"Last" + id + "\",\"email\":\"employee" + id + ".astekgroup.ma\"}";
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        } else if (random.nextBoolean()) {
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET().build();
+        } else {
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "?afterId=" + id + "&limit=20")).GET().build();
+        }
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.springboot.benchmark;
+
+import com.example.springboot.config.SnowflakeIds;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cost of one employee id made in memory: SnowflakeIds (app.employees.ids.generator=snowflake) against a plain
+// AtomicLong counter, the floor for any shared in-memory generator, on one thread and on four contending ones.
+// Snowflake ids top out at 4096 per millisecond, past that next() waits for the clock.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private SnowflakeIds snowflakeIds;
+    private AtomicLong counter;
+
+    @Setup
+    public void setup() {
+        snowflakeIds = new SnowflakeIds(1, 1000, System::currentTimeMillis);
+        counter = new AtomicLong();
+    }
+
+    @Benchmark
+    public long snowflake() {
+        return snowflakeIds.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long snowflakeContended() {
+        return snowflakeIds.next();
+    }
+
+    @Benchmark
+    public long atomicCounter() {
+        return counter.incrementAndGet();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long atomicCounterContended() {
+        return counter.incrementAndGet();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.springboot.benchmark;
+
+import com.example.springboot.model.Employee;
+import com.example.springboot.repository.EmployeeRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// map-backed stand-in for the EmployeeRepository methods the service calls, so the service can be measured without a database
+final class InMemoryEmployeeRepository implements InvocationHandler {
+
+    private final ConcurrentSkipListMap<Long, Employee> employees = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> idsByEmail = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    static EmployeeRepository create() {
+        return (EmployeeRepository) Proxy.newProxyInstance(EmployeeRepository.class.getClassLoader(),
+                new Class<?>[]{EmployeeRepository.class}, new InMemoryEmployeeRepository());
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "save":
+            case "saveAndFlush":
+                return save((Employee) args[0]);
+            case "findById":
+                return Optional.ofNullable(employees.get((Long) args[0]));
+            case "existsById":
+                return employees.containsKey((Long) args[0]);
+            case "findVersionById":
+                return Optional.ofNullable(employees.get((Long) args[0])).map(Employee::getVersion);
+            case "findByEmail":
+                return Optional.ofNullable(idsByEmail.get((String) args[0])).map(employees::get);
+            case "findSliceBy":
+                return findSlice((Pageable) args[0]);
+            case "findByIdGreaterThanOrderByIdAsc":
+                return employees.tailMap((Long) args[0], false).values().stream()
+                        .limit(((Pageable) args[1]).getPageSize())
+                        .collect(Collectors.toList());
+            case "updateById":
+                return update((Long) args[0], null, (String) args[1], (String) args[2], (String) args[3]);
+            case "updateByIdAndVersion":
+                return update((Long) args[0], (Long) args[1], (String) args[2], (String) args[3], (String) args[4]);
+            case "deleteEmployeeById":
+                Employee deleted = employees.remove((Long) args[0]);
+                if (deleted != null) {
+                    idsByEmail.remove(deleted.getEmail());
+                }
+                return deleted == null ? 0 : 1;
+            case "index":
+            case "unindex":
+                // no search index to keep up to date
+                return null;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "InMemoryEmployeeRepository";
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private Employee save(Employee employee) {
+        if (employee.getId() == 0) {
+            employee.setId(ids.incrementAndGet());
+            employee.setVersion(0L);
+        }
+        employees.put(employee.getId(), employee);
+        idsByEmail.put(employee.getEmail(), employee.getId());
+        return employee;
+    }
+
+    private SliceImpl<Employee> findSlice(Pageable pageable) {
+        List<Employee> content = new ArrayList<>(pageable.getPageSize());
+        employees.values().stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .forEach(content::add);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    private int update(long id, Long version, String firstName, String lastName, String email) {
+        Employee current = employees.get(id);
+        if (current == null || (version != null && !version.equals(current.getVersion()))) {
+            return 0;
+        }
+        Employee updated = Employee.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .version(current.getVersion() + 1)
+                .build();
+        employees.put(id, updated);
+        idsByEmail.remove(current.getEmail());
+        idsByEmail.put(email, id);
+        return 1;
+    }
+}
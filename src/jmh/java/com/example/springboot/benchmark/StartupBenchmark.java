@@ -0,0 +1,51 @@
+package com.example.springboot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// application startup time against an existing employees schema, as on every restart:
+// "ddl-auto-update" is the old Hibernate schema diff, "flyway-validate" is the current setup
+// (Flyway finds nothing to migrate, Hibernate validates the mapping), "flyway-none" skips Hibernate's check,
+// "fast-startup" is the startup-optimized profile (lazy initialization).
+// Each iteration is one cold boot of the context.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({"ddl-auto-update", "flyway-validate", "flyway-none", "fast-startup"})
+    private String schema;
+
+    private String[] args;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // create the schema once through the migrations, like an already deployed database
+        BenchmarkApplication.boot().close();
+        switch (schema) {
+            case "ddl-auto-update":
+                args = new String[]{"--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update"};
+                break;
+            case "fast-startup":
+                args = new String[]{"--spring.profiles.active=fast-startup"};
+                break;
+            case "flyway-none":
+                args = new String[]{"--spring.jpa.hibernate.ddl-auto=none"};
+                break;
+            default:
+                args = new String[0];
+        }
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext boot() {
+        ConfigurableApplicationContext context = BenchmarkApplication.boot(args);
+        context.close();
+        return context;
+    }
+}
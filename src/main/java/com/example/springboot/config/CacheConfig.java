@@ -0,0 +1,15 @@
+package com.example.springboot.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// cache sizes, TTLs and the on/off switch live in application.properties (spring.cache.*)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String EMPLOYEE_BY_ID = "employeeById";
+    public static final String EMPLOYEE_BY_EMAIL = "employeeByEmail";
+
+    // keys of the current tenant (TenantContext.cacheKey): tenants share the caches and their bounds
+    public static final String TENANT_KEY_ID = "T(com.example.springboot.config.TenantContext).cacheKey(#id)";
+}
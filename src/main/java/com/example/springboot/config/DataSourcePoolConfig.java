@@ -0,0 +1,37 @@
+package com.example.springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Sizes the Hikari pool from the core count unless spring.datasource.hikari.maximum-pool-size is set.
+// (cores * 2) + 1 is the usual starting point for a database on SSD: enough connections to keep the CPUs busy
+// while others wait on I/O, without the contention a large pool causes inside MySQL.
+// The remaining pool and driver settings are plain properties in application.properties.
+@Configuration
+public class DataSourcePoolConfig {
+
+    static final String MAXIMUM_POOL_SIZE_PROPERTY = "spring.datasource.hikari.maximum-pool-size";
+
+    static int defaultMaximumPoolSize(int cores) {
+        return cores * 2 + 1;
+    }
+
+    // static so it is registered before the DataSource bean is created
+    @Bean
+    public static BeanPostProcessor hikariPoolSizePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                // runs after spring.datasource.hikari.* is bound (a PriorityOrdered post processor), before the pool
+                // starts on first use and before DataSourceProxyConfig wraps the data source
+                if (bean instanceof HikariDataSource && !environment.containsProperty(MAXIMUM_POOL_SIZE_PROPERTY)) {
+                    ((HikariDataSource) bean).setMaximumPoolSize(defaultMaximumPoolSize(Runtime.getRuntime().availableProcessors()));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.springboot.config;
+
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Wraps the DataSource in one datasource-proxy shared by every JDBC listener bean (SlowQueryLogger, TracingJdbcListener).
+// Without listeners nothing is wrapped, so JDBC calls go straight to Hikari at no extra cost.
+@Configuration
+public class DataSourceProxyConfig {
+
+    // static so it is registered before the DataSource bean is created; the listeners are only looked up then
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryExecutionListener> queryListeners,
+                                                                 ObjectProvider<MethodExecutionListener> methodListeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource)) {
+                    return bean;
+                }
+                List<QueryExecutionListener> queryExecutionListeners = queryListeners.orderedStream().collect(Collectors.toList());
+                List<MethodExecutionListener> methodExecutionListeners = methodListeners.orderedStream().collect(Collectors.toList());
+                if (queryExecutionListeners.isEmpty() && methodExecutionListeners.isEmpty()) {
+                    return bean;
+                }
+                // the proxy unwraps to the HikariDataSource, so the hikaricp.* pool metrics keep working
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, (DataSource) bean);
+                queryExecutionListeners.forEach(builder::listener);
+                methodExecutionListeners.forEach(builder::methodListener);
+                return builder.build();
+            }
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.springboot.config;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Properties;
+
+// Employee ids, from the pooled employees_seq generator or, with app.employees.ids.generator=snowflake, from
+// SnowflakeIds on this node without touching the database. Inserts made through ShardedEmployeeService arrive with
+// a global id already set (its shard in the low bits) and keep it. Outside a shard an id sent by a client is
+// ignored as before.
+public class EmployeeIdGenerator extends SequenceStyleGenerator {
+
+    // Hibernate settings, set from app.employees.ids.* through spring.jpa.properties
+    static final String GENERATOR_SETTING = "app.employees.ids.generator";
+    static final String NODE_ID_SETTING = "app.employees.ids.node-id";
+    static final String MAX_BACKWARD_SETTING = "app.employees.ids.max-clock-backward-ms";
+
+    private SnowflakeIds snowflakeIds;
+
+    // the sequence is configured either way, ddl-auto=validate expects it
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        super.configure(type, params, serviceRegistry);
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        if ("snowflake".equals(ConfigurationHelper.getString(GENERATOR_SETTING, settings, "sequence"))) {
+            snowflakeIds = new SnowflakeIds(nodeId(settings), ConfigurationHelper.getLong(MAX_BACKWARD_SETTING, settings, 1000),
+                    System::currentTimeMillis);
+        }
+    }
+
+    // two instances with the same node id make the same ids, so there is no default (nor one guessed from the host
+    // name, whose hashes collide): without a node id in range the application does not start
+    static int nodeId(Map<?, ?> settings) {
+        int nodeId = ConfigurationHelper.getInt(NODE_ID_SETTING, settings, -1);
+        if (nodeId < 0 || nodeId > SnowflakeIds.MAX_NODE_ID) {
+            throw new MappingException(NODE_ID_SETTING + " must be set to this instance's own id between 0 and "
+                    + SnowflakeIds.MAX_NODE_ID + " for snowflake ids, got " + nodeId);
+        }
+        return nodeId;
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        if (ShardRoutingDataSource.currentShard() != null) {
+            Serializable id = session.getEntityPersister(null, object).getIdentifier(object, session);
+            if (id instanceof Long && (Long) id != 0) {
+                return id;
+            }
+        }
+        return snowflakeIds != null ? snowflakeIds.next() : super.generate(session, object);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.springboot.config;
+
+import com.example.springboot.model.Employee;
+import org.apache.lucene.analysis.core.LowerCaseFilterFactory;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilterFactory;
+import org.apache.lucene.analysis.ngram.EdgeNGramFilterFactory;
+import org.apache.lucene.analysis.pattern.PatternTokenizerFactory;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurationContext;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurer;
+
+// Analyzers of the employee search index (hibernate.search.backend.analysis.configurer): names and emails are split
+// into words at anything but letters and digits ("flotfi@astekgroup.ma" is flotfi, astekgroup, ma), lower-cased
+// and stripped of accents; the prefix fields also index every leading part of a word up to MAX_PREFIX characters.
+public class EmployeeSearchAnalysisConfigurer implements LuceneAnalysisConfigurer {
+
+    public static final String WORD_SEPARATORS = "[^\\p{L}\\p{N}]+";
+    static final int MAX_PREFIX = 20;
+
+    @Override
+    public void configure(LuceneAnalysisConfigurationContext context) {
+        context.analyzer(Employee.SEARCH_ANALYZER).custom()
+                .tokenizer(PatternTokenizerFactory.class).param("pattern", WORD_SEPARATORS)
+                .tokenFilter(LowerCaseFilterFactory.class)
+                .tokenFilter(ASCIIFoldingFilterFactory.class);
+        context.analyzer(Employee.SEARCH_PREFIX_ANALYZER).custom()
+                .tokenizer(PatternTokenizerFactory.class).param("pattern", WORD_SEPARATORS)
+                .tokenFilter(LowerCaseFilterFactory.class)
+                .tokenFilter(ASCIIFoldingFilterFactory.class)
+                .tokenFilter(EdgeNGramFilterFactory.class)
+                        .param("minGramSize", "1")
+                        .param("maxGramSize", String.valueOf(MAX_PREFIX));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.springboot.config;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Hands out the sequence part of sharded employee ids, unique across shards: blocks of block-size values are
+// reserved in one employees_seq row (on shard 0), one short transaction per block, and used up in memory.
+// Values of a block that is not used up before a restart are skipped.
+public class GlobalIdAllocator {
+
+    static final String RESERVE_BLOCK = "update employees_seq set next_val = next_val + ?";
+    static final String READ_BLOCK_END = "select next_val from employees_seq";
+
+    private final DataSource dataSource;
+    private final int blockSize;
+    // the current block is [next, end)
+    private long next;
+    private long end;
+
+    public GlobalIdAllocator(DataSource dataSource, int blockSize) {
+        this.dataSource = dataSource;
+        this.blockSize = blockSize;
+    }
+
+    public synchronized long next() {
+        if (next == end) {
+            end = reserveBlock();
+            next = end - blockSize;
+        }
+        return next++;
+    }
+
+    // the update locks the row until commit, so concurrent instances never read the same block end
+    private long reserveBlock() {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement reserve = connection.prepareStatement(RESERVE_BLOCK);
+                 PreparedStatement read = connection.prepareStatement(READ_BLOCK_END)) {
+                reserve.setLong(1, blockSize);
+                reserve.executeUpdate();
+                long blockEnd;
+                try (ResultSet resultSet = read.executeQuery()) {
+                    if (!resultSet.next()) {
+                        throw new IllegalStateException("employees_seq has no row");
+                    }
+                    blockEnd = resultSet.getLong(1);
+                }
+                connection.commit();
+                return blockEnd;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot reserve a block of employee ids", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.springboot.config;
+
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+// app.hibernate.statistics.enabled=true turns on Hibernate's Statistics (hibernate.generate_statistics, see
+// application.properties) and publishes them on /actuator/hibernate; the integration tests count statements with them.
+@Configuration
+@ConditionalOnProperty(name = "app.hibernate.statistics.enabled", havingValue = "true")
+public class HibernateStatisticsConfig {
+
+    @Bean
+    public HibernateStatisticsEndpoint hibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        return new HibernateStatisticsEndpoint(entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+    }
+}
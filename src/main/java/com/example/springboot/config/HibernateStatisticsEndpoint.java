@@ -0,0 +1,89 @@
+package com.example.springboot.config;
+
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// GET /actuator/hibernate: statement, entity, cache and per-query counters since startup or the last reset,
+// DELETE /actuator/hibernate resets them, e.g. before replaying a single request to count its statements.
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    // the queries with the highest total execution time
+    static final int TOP_QUERIES = 20;
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsEndpoint(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("since", Instant.ofEpochMilli(statistics.getStartTime()));
+        report.put("statements", Map.of(
+                "prepared", statistics.getPrepareStatementCount(),
+                "closed", statistics.getCloseStatementCount()));
+        report.put("sessions", Map.of(
+                "opened", statistics.getSessionOpenCount(),
+                "connections", statistics.getConnectCount(),
+                "flushes", statistics.getFlushCount(),
+                "transactions", statistics.getTransactionCount(),
+                "successfulTransactions", statistics.getSuccessfulTransactionCount()));
+        report.put("entities", Map.of(
+                "loaded", statistics.getEntityLoadCount(),
+                "fetched", statistics.getEntityFetchCount(),
+                "inserted", statistics.getEntityInsertCount(),
+                "updated", statistics.getEntityUpdateCount(),
+                "deleted", statistics.getEntityDeleteCount()));
+        report.put("secondLevelCache", Map.of(
+                "hits", statistics.getSecondLevelCacheHitCount(),
+                "misses", statistics.getSecondLevelCacheMissCount(),
+                "puts", statistics.getSecondLevelCachePutCount()));
+        report.put("queryCache", Map.of(
+                "hits", statistics.getQueryCacheHitCount(),
+                "misses", statistics.getQueryCacheMissCount(),
+                "puts", statistics.getQueryCachePutCount()));
+        report.put("queryExecutions", statistics.getQueryExecutionCount());
+        report.put("slowestQueryMillis", statistics.getQueryExecutionMaxTime());
+        report.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        report.put("queries", topQueries());
+        return report;
+    }
+
+    private List<Map<String, Object>> topQueries() {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong((Map.Entry<String, QueryStatistics> entry) ->
+                        entry.getValue().getExecutionTotalTime()).reversed())
+                .limit(TOP_QUERIES)
+                .map(entry -> {
+                    QueryStatistics queryStatistics = entry.getValue();
+                    Map<String, Object> query = new LinkedHashMap<>();
+                    query.put("query", entry.getKey());
+                    query.put("executions", queryStatistics.getExecutionCount());
+                    query.put("rows", queryStatistics.getExecutionRowCount());
+                    query.put("averageMillis", queryStatistics.getExecutionAvgTime());
+                    query.put("maxMillis", queryStatistics.getExecutionMaxTime());
+                    query.put("cacheHits", queryStatistics.getCacheHitCount());
+                    return query;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.clear();
+    }
+}
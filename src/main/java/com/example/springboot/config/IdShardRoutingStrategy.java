@@ -0,0 +1,17 @@
+package com.example.springboot.config;
+
+import com.example.springboot.model.Employee;
+
+// strategy=id: consecutive ids go to consecutive shards, which keeps them evenly filled; lookups by email ask every shard
+public class IdShardRoutingStrategy implements ShardRoutingStrategy {
+
+    @Override
+    public int shardFor(long sequence, Employee employee, int shards) {
+        return (int) Math.floorMod(sequence, (long) shards);
+    }
+
+    @Override
+    public int shardForEmail(String email, int shards) {
+        return ANY_SHARD;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.springboot.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Latency timers, all published with percentile histograms on /actuator/prometheus:
+// http.server.requests per endpoint (uri tag), employee.service per EmployeeServiceImpl method (@Timed)
+// and spring.data.repository.invocations per EmployeeRepository method. Histograms are switched on in
+// application.properties (management.metrics.distribution.percentiles-histogram.*).
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "employee.service";
+
+    // makes @Timed work on beans other than controllers
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.springboot.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.util.List;
+
+// app.datasource.replicas.enabled=true sends reads in read-only transactions (@Transactional(readOnly = true)
+// service methods, Spring Data's own reads) to the replicas in app.datasource.replicas.urls, everything else to
+// spring.datasource.url. Replica pools take their settings from spring.datasource.hikari.*.
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReadReplicas readReplicas(Environment environment,
+                                     @Value("${app.datasource.replicas.urls}") List<String> urls,
+                                     @Value("${app.datasource.replicas.username:${spring.datasource.username:}}") String username,
+                                     @Value("${app.datasource.replicas.password:${spring.datasource.password:}}") String password,
+                                     @Value("${app.datasource.replicas.check-interval-ms:1000}") long checkIntervalMillis,
+                                     @Value("${app.datasource.replicas.max-lag-ms:1000}") long maxLagMillis,
+                                     @Value("${app.datasource.replicas.heartbeat:true}") boolean heartbeat) {
+        HikariConfig template = Binder.get(environment)
+                .bind("spring.datasource.hikari", Bindable.ofInstance(new HikariConfig()))
+                .orElseGet(HikariConfig::new);
+        if (!environment.containsProperty(DataSourcePoolConfig.MAXIMUM_POOL_SIZE_PROPERTY)) {
+            template.setMaximumPoolSize(DataSourcePoolConfig.defaultMaximumPoolSize(Runtime.getRuntime().availableProcessors()));
+        }
+        if (template.getPoolName() == null) {
+            template.setPoolName("pool");
+        }
+        return new ReadReplicas(ReadReplicas.pools(template, urls, username, password),
+                checkIntervalMillis, maxLagMillis, heartbeat, System::currentTimeMillis);
+    }
+
+    // declared as Ordered (the return type is what the context sorts by) so it runs before DataSourceProxyConfig's
+    // post processor and the JDBC listeners see the routed connections; the lazy proxy fetches the real connection
+    // at the first statement, once the transaction's read-only flag is known
+    @Bean
+    public static RoutingPostProcessor replicaRoutingPostProcessor(ObjectProvider<ReadReplicas> readReplicas) {
+        return new RoutingPostProcessor(readReplicas);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replicas.read-your-writes.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${app.datasource.replicas.read-your-writes.window-ms:3000}") long windowMillis) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(windowMillis, System::currentTimeMillis));
+        // inside the tracing filter, ahead of everything that could read
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    static class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ReadReplicas> readReplicas;
+
+        RoutingPostProcessor(ObjectProvider<ReadReplicas> readReplicas) {
+            this.readReplicas = readReplicas;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource)) {
+                return bean;
+            }
+            ReadReplicas replicas = readReplicas.getObject();
+            replicas.setPrimary((HikariDataSource) bean);
+            return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource((HikariDataSource) bean, replicas));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.springboot.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// The replica pools and their health. Every check-interval the primary's replication_heartbeat row is stamped
+// with the current time and read back on each replica. The stamp written just now has usually not replicated yet,
+// so lag counts from the stamp a replica is missing, written one check-interval after the one it sees: a replica
+// showing this or the previous check's stamp has lag 0, i.e. lag is measured to check-interval. A replica that cannot
+// be reached or lags more than max-lag takes no reads until a later check passes; with none left, reads go to the
+// primary. Without heartbeat (two independent databases, nothing replicates the row) only reachability is checked.
+public class ReadReplicas implements SmartLifecycle, MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicas.class);
+
+    static final String STAMP_HEARTBEAT = "update replication_heartbeat set beat_at = ? where id = 1";
+    static final String READ_HEARTBEAT = "select beat_at from replication_heartbeat where id = 1";
+
+    private final List<Replica> replicas;
+    private final long checkIntervalMillis;
+    private final long maxLagMillis;
+    private final boolean heartbeat;
+    private final LongSupplier clock;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    // set by ReadReplicaConfig once the primary pool exists
+    private volatile DataSource primary;
+    // the replicas taking reads, replaced as a whole by each check
+    private volatile List<Replica> healthy = List.of();
+    private ScheduledExecutorService checker;
+
+    public ReadReplicas(List<Replica> replicas, long checkIntervalMillis, long maxLagMillis, boolean heartbeat,
+                        LongSupplier clock) {
+        this.replicas = replicas;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.maxLagMillis = maxLagMillis;
+        this.heartbeat = heartbeat;
+        this.clock = clock;
+    }
+
+    // one read-only pool per replica url, the other settings copied from the template
+    static List<Replica> pools(HikariConfig template, List<String> urls, String username, String password) {
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            template.copyStateTo(config);
+            config.setJdbcUrl(urls.get(i));
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setPoolName(template.getPoolName() + "-replica-" + (i + 1));
+            config.setReadOnly(true);
+            // a replica that is down at startup does not stop the application, it only fails its health checks
+            config.setInitializationFailTimeout(-1);
+            replicas.add(new Replica(config.getPoolName(), new HikariDataSource(config)));
+        }
+        return replicas;
+    }
+
+    void setPrimary(DataSource primary) {
+        this.primary = primary;
+    }
+
+    // round robin over the healthy replicas, null when there is none
+    Replica next() {
+        List<Replica> candidates = healthy;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size()));
+    }
+
+    List<Replica> healthy() {
+        return healthy;
+    }
+
+    void markDown(Replica replica, Exception cause) {
+        if (replica.healthy) {
+            log.warn("Replica {} failed to hand out a connection, reads go elsewhere until it passes a check", replica.name, cause);
+        }
+        replica.healthy = false;
+        List<Replica> remaining = new ArrayList<>(healthy);
+        remaining.remove(replica);
+        healthy = List.copyOf(remaining);
+    }
+
+    void check() {
+        long now = clock.getAsLong();
+        if (heartbeat) {
+            try {
+                stampHeartbeat(now);
+            } catch (SQLException e) {
+                // replicas are still checked, their lag keeps growing until the primary is back
+                log.warn("Cannot stamp the replication heartbeat on the primary", e);
+            }
+        }
+        List<Replica> passed = new ArrayList<>();
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            String problem = check(replica, now);
+            replica.healthy = problem == null;
+            if (replica.healthy) {
+                passed.add(replica);
+                if (!wasHealthy) {
+                    log.info("Replica {} takes reads, lag {} ms", replica.name, replica.lagMillis);
+                }
+            } else if (wasHealthy || !replica.checked) {
+                log.warn("Replica {} takes no reads: {}", replica.name, problem);
+            }
+            replica.checked = true;
+        }
+        healthy = List.copyOf(passed);
+    }
+
+    private String check(Replica replica, long now) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!heartbeat) {
+                replica.lagMillis = 0;
+                return connection.isValid(1) ? null : "connection is not valid";
+            }
+            try (PreparedStatement statement = connection.prepareStatement(READ_HEARTBEAT);
+                 ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    replica.lagMillis = Long.MAX_VALUE;
+                    return "no replication heartbeat row";
+                }
+                replica.lagMillis = lagMillis(now, resultSet.getLong(1));
+            }
+            return replica.lagMillis > maxLagMillis ? "lag " + replica.lagMillis + " ms exceeds " + maxLagMillis + " ms" : null;
+        } catch (SQLException e) {
+            replica.lagMillis = Long.MAX_VALUE;
+            return e.getMessage();
+        }
+    }
+
+    // time since the first stamp the replica has not seen was written, about one interval after the one it has
+    long lagMillis(long now, long seenStamp) {
+        return Math.max(0, now - seenStamp - checkIntervalMillis);
+    }
+
+    private void stampHeartbeat(long now) throws SQLException {
+        try (Connection connection = primary.getConnection();
+             PreparedStatement statement = connection.prepareStatement(STAMP_HEARTBEAT)) {
+            statement.setLong(1, now);
+            statement.executeUpdate();
+        }
+    }
+
+    // checks start once the context is up (Flyway has created replication_heartbeat), reads stay on the primary until then
+    @Override
+    public void start() {
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(() -> {
+            try {
+                check();
+            } catch (RuntimeException e) {
+                log.error("Replica health check failed", e);
+            }
+        }, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (checker != null) {
+            checker.shutdownNow();
+            checker = null;
+        }
+        healthy = List.of();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return checker != null;
+    }
+
+    // hikaricp.* pool metrics per replica pool, as Boot publishes them for the primary, plus lag and health
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof HikariDataSource) {
+                ((HikariDataSource) replica.dataSource).setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            Gauge.builder("app.datasource.replica.lag", replica, r -> r.lagMillis == Long.MAX_VALUE ? Double.NaN : r.lagMillis / 1000.0)
+                    .description("Replication lag measured by the last health check")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("app.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("1 when the replica takes reads")
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof HikariDataSource) {
+                ((HikariDataSource) replica.dataSource).close();
+            }
+        }
+    }
+
+    public static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private boolean checked;
+        private volatile long lagMillis = Long.MAX_VALUE;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        DataSource getDataSource() {
+            return dataSource;
+        }
+
+        long getLagMillis() {
+            return lagMillis;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.springboot.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+// Hands out primary connections, except inside a read-only transaction, which gets one from a healthy replica
+// (ReadReplicas) unless the thread is pinned to the primary (onPrimary, ReadYourWritesFilter). Decided when the
+// connection is first used: ReadReplicaConfig puts a LazyConnectionDataSourceProxy in front, as the transaction
+// manager opens the connection before it marks the transaction read-only.
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = ThreadLocal.withInitial(() -> false);
+
+    private final DataSource primary;
+    private final ReadReplicas readReplicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadReplicas readReplicas) {
+        this.primary = primary;
+        this.readReplicas = readReplicas;
+    }
+
+    // runs the call with every read on the primary, e.g. the loads that fill the employee caches, which must not
+    // cache a row a lagging replica has not caught up on yet
+    public static <T> T onPrimary(Supplier<T> call) {
+        boolean pinned = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(true);
+        try {
+            return call.get();
+        } finally {
+            PINNED_TO_PRIMARY.set(pinned);
+        }
+    }
+
+    static boolean pinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get();
+    }
+
+    static boolean pinToPrimary() {
+        boolean pinned = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(true);
+        return pinned;
+    }
+
+    static void restorePin(boolean pinned) {
+        PINNED_TO_PRIMARY.set(pinned);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PINNED_TO_PRIMARY.get()) {
+            return primary.getConnection();
+        }
+        ReadReplicas.Replica replica = readReplicas.next();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        Connection connection;
+        try {
+            connection = replica.getDataSource().getConnection();
+        } catch (SQLException e) {
+            // don't wait for the next health check to stop sending reads there
+            readReplicas.markDown(replica, e);
+            return primary.getConnection();
+        }
+        skipSecondLevelCachePuts();
+        return connection;
+    }
+
+    // entities read from a replica may be behind the primary: read the second-level cache, never fill it from them
+    private static void skipSecondLevelCachePuts() {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder) {
+                ((EntityManagerHolder) resource).getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("the primary and replica pools have their own credentials");
+    }
+
+    // lets Boot find the primary HikariDataSource behind the routing for its pool metrics
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+}
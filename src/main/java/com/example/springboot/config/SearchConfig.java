@@ -0,0 +1,24 @@
+package com.example.springboot.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+// Full-text employee search: Hibernate Search maps Employee to an embedded Lucene index (app.search.* and the
+// hibernate.search.* properties in application.properties, analyzers in EmployeeSearchAnalysisConfigurer) and
+// /actuator/searchindex rebuilds it.
+@Configuration
+public class SearchConfig {
+
+    @Bean
+    public SearchIndexEndpoint searchIndexEndpoint(EntityManagerFactory entityManagerFactory,
+                                                   ObjectProvider<Shards> shards,
+                                                   @Value("${app.search.mass-indexer.threads:4}") int threads,
+                                                   @Value("${app.search.mass-indexer.batch-size:100}") int batchSize) {
+        Shards sharded = shards.getIfAvailable();
+        return new SearchIndexEndpoint(entityManagerFactory, sharded == null ? 0 : sharded.count(), threads, batchSize);
+    }
+}
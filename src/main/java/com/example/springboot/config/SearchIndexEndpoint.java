@@ -0,0 +1,105 @@
+package com.example.springboot.config;
+
+import com.example.springboot.model.Employee;
+import org.hibernate.CacheMode;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.mapping.SearchMapping;
+import org.hibernate.search.mapper.orm.massindexing.MassIndexer;
+import org.hibernate.search.mapper.pojo.massindexing.MassIndexingEnvironment;
+import org.hibernate.search.mapper.pojo.massindexing.MassIndexingMonitor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// POST /actuator/searchindex rebuilds the employee search index from the database: it is emptied, then every employee
+// of every tenant is read by `threads` threads, batchSize at a time, and indexed again. Searches see the index as it
+// fills; writes during the rebuild are indexed as usual. Sharded, the shards are read one after the other.
+@Endpoint(id = "searchindex")
+public class SearchIndexEndpoint {
+
+    private final EntityManagerFactory entityManagerFactory;
+    // 0 when employees are not sharded
+    private final int shards;
+    private final int threads;
+    private final int batchSize;
+
+    public SearchIndexEndpoint(EntityManagerFactory entityManagerFactory, int shards, int threads, int batchSize) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.shards = shards;
+        this.threads = threads;
+        this.batchSize = batchSize;
+    }
+
+    // one rebuild at a time, a second request waits for the first
+    @WriteOperation
+    public synchronized Map<String, Object> rebuild() throws InterruptedException {
+        long start = System.nanoTime();
+        LongAdder indexed = new LongAdder();
+        SearchMapping mapping = Search.mapping(entityManagerFactory);
+        if (shards == 0) {
+            massIndexer(mapping, indexed).startAndWait();
+        } else {
+            mapping.scope(Employee.class).workspace().purge();
+            for (int shard = 0; shard < shards; shard++) {
+                massIndexer(mapping, indexed)
+                        .purgeAllOnStart(false)
+                        .environment(onShard(shard))
+                        .startAndWait();
+            }
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("indexed", indexed.sum());
+        report.put("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return report;
+    }
+
+    private MassIndexer massIndexer(SearchMapping mapping, LongAdder indexed) {
+        return mapping.scope(Employee.class).massIndexer()
+                .threadsToLoadObjects(threads)
+                .batchSizeToLoadObjects(batchSize)
+                // a full pass over the table must not flush the hot entries out of the second-level cache
+                .cacheMode(CacheMode.IGNORE)
+                .monitor(new MassIndexingMonitor() {
+                    @Override
+                    public void documentsAdded(long increment) {
+                        indexed.add(increment);
+                    }
+
+                    @Override
+                    public void documentsBuilt(long increment) {
+                    }
+
+                    @Override
+                    public void entitiesLoaded(long increment) {
+                    }
+
+                    @Override
+                    public void addToTotalCount(long increment) {
+                    }
+
+                    @Override
+                    public void indexingCompleted() {
+                    }
+                });
+    }
+
+    // the indexer's loading threads are its own, they are pointed at the shard for the time they run
+    private static MassIndexingEnvironment onShard(int shard) {
+        return new MassIndexingEnvironment() {
+            @Override
+            public void beforeExecution(Context context) {
+                ShardRoutingDataSource.enter(shard);
+            }
+
+            @Override
+            public void afterExecution(Context context) {
+                ShardRoutingDataSource.restore(null);
+            }
+        };
+    }
+}
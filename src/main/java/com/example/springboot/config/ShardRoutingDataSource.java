@@ -0,0 +1,89 @@
+package com.example.springboot.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// The DataSource of the single EntityManagerFactory when employees are sharded: connections come from the shard
+// the calling thread runs on (onShard), shard 0 outside of it (schema validation, the global id blocks).
+// Ids carry their shard in the low SHARD_BITS bits, so an employee is found from its id alone.
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final int SHARD_BITS = 8;
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    public ShardRoutingDataSource(List<? extends DataSource> shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public static long shardedId(long sequence, int shard) {
+        return (sequence << SHARD_BITS) | shard;
+    }
+
+    public static int shardOf(long id) {
+        return (int) (id & (MAX_SHARDS - 1));
+    }
+
+    // runs the call, and every transaction it opens, against one shard; transactions must not span shards
+    public static <T> T onShard(int shard, Supplier<T> call) {
+        Integer previous = enter(shard);
+        try {
+            return call.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    // for threads that are not ours to wrap (SearchIndexEndpoint's mass indexer); returns the shard to restore
+    static Integer enter(int shard) {
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT_SHARD.remove();
+        } else {
+            CURRENT_SHARD.set(previous);
+        }
+    }
+
+    // the shard the calling thread runs on, null outside of onShard
+    public static Integer currentShard() {
+        return CURRENT_SHARD.get();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT_SHARD.get();
+    }
+
+    // not a wrapper of any one pool: Boot would publish shard 0's metrics as the only pool's, Shards binds them all
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("ShardRoutingDataSource does not wrap a " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.springboot.config;
+
+import com.example.springboot.model.Employee;
+
+// Where a new employee is stored (app.datasource.shards.strategy). Only placement is up to the strategy: the shard
+// ends up in the employee's id, so reads, updates and deletes by id go straight to it whatever the strategy.
+public interface ShardRoutingStrategy {
+
+    int ANY_SHARD = -1;
+
+    // sequence is the global part of the id the employee is about to get
+    int shardFor(long sequence, Employee employee, int shards);
+
+    // the shard to look an email up on first, ANY_SHARD when the email says nothing about it
+    int shardForEmail(String email, int shards);
+}
@@ -0,0 +1,113 @@
+package com.example.springboot.config;
+
+import com.example.springboot.repository.EmployeeRepository;
+import com.example.springboot.service.EmployeeService;
+import com.example.springboot.service.impl.EmployeeServiceImpl;
+import com.example.springboot.service.impl.ShardedEmployeeService;
+import com.zaxxer.hikari.HikariConfig;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+// app.datasource.shards.enabled=true spreads employees over the databases in app.datasource.shards.urls instead of
+// spring.datasource.url: each shard has the full schema, an employee lives on exactly one of them, chosen by
+// app.datasource.shards.strategy when it is created. Shard pools take their settings from spring.datasource.hikari.*.
+// Existing employees of an unsharded database are not moved; start sharding on empty databases.
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.shards.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    // global id blocks; the pooled generator's increment, so shard 0's sequence moves the way it always did
+    static final int ID_BLOCK_SIZE = 50;
+
+    @Bean(destroyMethod = "close")
+    public Shards shards(Environment environment,
+                         @Value("${app.datasource.shards.urls}") List<String> urls,
+                         @Value("${app.datasource.shards.username:${spring.datasource.username:}}") String username,
+                         @Value("${app.datasource.shards.password:${spring.datasource.password:}}") String password) {
+        // reads route by the transaction, shards by the service call; the two are not combined
+        if (environment.getProperty("app.datasource.replicas.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("app.datasource.shards.enabled and app.datasource.replicas.enabled cannot both be true");
+        }
+        HikariConfig template = Binder.get(environment)
+                .bind("spring.datasource.hikari", Bindable.ofInstance(new HikariConfig()))
+                .orElseGet(HikariConfig::new);
+        if (!environment.containsProperty(DataSourcePoolConfig.MAXIMUM_POOL_SIZE_PROPERTY)) {
+            template.setMaximumPoolSize(DataSourcePoolConfig.defaultMaximumPoolSize(Runtime.getRuntime().availableProcessors()));
+        }
+        if (template.getPoolName() == null) {
+            template.setPoolName("pool");
+        }
+        return Shards.create(template, urls, username, password);
+    }
+
+    // the one DataSource JPA, Flyway and the rest of the app see
+    @Bean
+    @Primary
+    public DataSource dataSource(Shards shards) {
+        return new ShardRoutingDataSource(shards.dataSources());
+    }
+
+    // the same migrations on every shard, in shard order
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(Shards shards) {
+        return flyway -> shards.dataSources().forEach(shard ->
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate());
+    }
+
+    // query cache keys do not name the shard: a list cached on one shard would be served for every other
+    @Bean
+    public HibernatePropertiesCustomizer shardQueryCacheCustomizer() {
+        return properties -> properties.put("hibernate.cache.use_query_cache", "false");
+    }
+
+    @Bean
+    public ShardRoutingStrategy shardRoutingStrategy(Environment environment, Shards shards,
+                                                     @Value("${app.datasource.shards.strategy:id}") String strategy) {
+        switch (strategy) {
+            case "id":
+                return new IdShardRoutingStrategy();
+            case "tenant":
+                Map<String, Integer> tenants = Binder.get(environment)
+                        .bind("app.datasource.shards.tenants", Bindable.mapOf(String.class, Integer.class))
+                        .orElseGet(Map::of);
+                tenants.forEach((tenant, shard) -> {
+                    if (shard < 0 || shard >= shards.count()) {
+                        throw new IllegalStateException("app.datasource.shards.tenants." + tenant + "=" + shard
+                                + " is not a shard, there are " + shards.count());
+                    }
+                });
+                return new TenantShardRoutingStrategy(tenants);
+            default:
+                throw new IllegalStateException("Unknown app.datasource.shards.strategy: " + strategy + " (id or tenant)");
+        }
+    }
+
+    @Bean
+    public GlobalIdAllocator globalIdAllocator(Shards shards) {
+        return new GlobalIdAllocator(shards.dataSources().get(0), ID_BLOCK_SIZE);
+    }
+
+    // replaces EmployeeServiceImpl for the controller and the write-behind queue, and calls it per shard
+    @Bean(destroyMethod = "close")
+    @Primary
+    public EmployeeService shardedEmployeeService(EmployeeServiceImpl employeeService, EmployeeRepository employeeRepository,
+                                                  GlobalIdAllocator globalIdAllocator, ShardRoutingStrategy shardRoutingStrategy,
+                                                  Shards shards,
+                                                  @Value("${app.datasource.shards.scatter-threads:0}") int scatterThreads) {
+        return new ShardedEmployeeService(employeeService, employeeRepository, globalIdAllocator, shardRoutingStrategy,
+                shards.count(), scatterThreads > 0 ? scatterThreads : shards.count() * 4);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.springboot.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One pool per shard url, shard n is the n-th url; their order must never change once employees are stored.
+public class Shards implements MeterBinder, AutoCloseable {
+
+    private final List<HikariDataSource> dataSources;
+
+    Shards(List<HikariDataSource> dataSources) {
+        this.dataSources = dataSources;
+    }
+
+    // configured like the single pool would be (spring.datasource.hikari.*), one pool per url
+    static Shards create(HikariConfig template, List<String> urls, String username, String password) {
+        if (urls.isEmpty() || urls.size() > ShardRoutingDataSource.MAX_SHARDS) {
+            throw new IllegalArgumentException("app.datasource.shards.urls must list 1 to "
+                    + ShardRoutingDataSource.MAX_SHARDS + " databases, got " + urls.size());
+        }
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            template.copyStateTo(config);
+            config.setJdbcUrl(urls.get(i));
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setPoolName(template.getPoolName() + "-shard-" + i);
+            dataSources.add(new HikariDataSource(config));
+        }
+        return new Shards(dataSources);
+    }
+
+    public int count() {
+        return dataSources.size();
+    }
+
+    public List<HikariDataSource> dataSources() {
+        return dataSources;
+    }
+
+    // hikaricp.* metrics per shard pool, tagged pool=<pool-name>-shard-<n>
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        dataSources.forEach(dataSource -> dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+
+    @Override
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
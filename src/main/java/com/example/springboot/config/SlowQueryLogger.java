@@ -0,0 +1,117 @@
+package com.example.springboot.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// Logs statements slower than the threshold, one key=value line each with the elapsed time, the calling
+// repository method, the SQL and its bind parameters. sample-rate < 1 logs only that share of the slow ones.
+// Fast statements cost one comparison; the stack walk and formatting only happen for logged statements.
+public class SlowQueryLogger implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLogger.class);
+    private static final String APPLICATION_PACKAGE = "com.example.springboot.";
+    // a JDBC batch can carry thousands of parameter sets, only the first few are logged
+    static final int MAX_LOGGED_PARAMETER_SETS = 5;
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private long thresholdMillis;
+    private double sampleRate;
+
+    public SlowQueryLogger(long thresholdMillis, double sampleRate) {
+        this.thresholdMillis = thresholdMillis;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis) {
+            return;
+        }
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            log.warn("slow-query elapsedMs={} caller={} success={} batchSize={} sql=\"{}\" params={}",
+                    execInfo.getElapsedTime(), caller(), execInfo.isSuccess(), execInfo.getBatchSize(),
+                    queryInfo.getQuery(), parameters(queryInfo));
+        }
+    }
+
+    // the innermost Spring Data repository method on the stack (e.g. EmployeeRepository.findByEmail), otherwise
+    // the innermost application frame, e.g. the service method whose transaction commit flushed the statement
+    static String caller() {
+        return STACK_WALKER.walk(frames -> {
+            String applicationFrame = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                Class<?> declaringClass = frame.getDeclaringClass();
+                if (Proxy.isProxyClass(declaringClass) && Repository.class.isAssignableFrom(declaringClass)) {
+                    return repositoryInterface(declaringClass).getSimpleName() + "." + frame.getMethodName();
+                }
+                if (applicationFrame == null && declaringClass != SlowQueryLogger.class
+                        && declaringClass.getName().startsWith(APPLICATION_PACKAGE)) {
+                    applicationFrame = declaringClass.getSimpleName() + "." + frame.getMethodName();
+                }
+            }
+            return applicationFrame == null ? "unknown" : applicationFrame;
+        });
+    }
+
+    // repository frames belong to the generated proxy class, report the interface it implements instead
+    private static Class<?> repositoryInterface(Class<?> proxyClass) {
+        for (Class<?> candidate : proxyClass.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(candidate) && candidate.getName().startsWith(APPLICATION_PACKAGE)) {
+                return candidate;
+            }
+        }
+        return proxyClass;
+    }
+
+    private static String parameters(QueryInfo queryInfo) {
+        List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+        String logged = parametersList.stream()
+                .filter(operations -> !operations.isEmpty())
+                .limit(MAX_LOGGED_PARAMETER_SETS)
+                .map(SlowQueryLogger::parameterSet)
+                .collect(Collectors.joining(","));
+        if (parametersList.size() > MAX_LOGGED_PARAMETER_SETS) {
+            logged += ",...(" + parametersList.size() + " sets)";
+        }
+        return "[" + logged + "]";
+    }
+
+    private static int parameterIndex(ParameterSetOperation operation) {
+        Object index = operation.getArgs()[0];
+        return index instanceof Integer ? (Integer) index : Integer.MAX_VALUE;
+    }
+
+    // each operation is a setXxx(index, value) call on the PreparedStatement, listed in parameter order
+    private static String parameterSet(List<ParameterSetOperation> operations) {
+        return operations.stream()
+                .sorted(Comparator.comparingInt(SlowQueryLogger::parameterIndex))
+                .map(operation -> {
+                    Object[] args = operation.getArgs();
+                    if (ParameterSetOperation.isSetNullParameterOperation(operation)) {
+                        return "null";
+                    }
+                    return args.length > 1 ? String.valueOf(args[1]) : Arrays.toString(args);
+                })
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+}
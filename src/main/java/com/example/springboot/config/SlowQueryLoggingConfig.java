@@ -0,0 +1,19 @@
+package com.example.springboot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// app.sql.slow-query.enabled=true hands every statement to SlowQueryLogger through the DataSource proxy
+// (DataSourceProxyConfig). When disabled there is no listener and, unless tracing needs it, no proxy at all.
+@Configuration
+@ConditionalOnProperty(name = "app.sql.slow-query.enabled", havingValue = "true")
+public class SlowQueryLoggingConfig {
+
+    @Bean
+    public SlowQueryLogger slowQueryLogger(@Value("${app.sql.slow-query.threshold-ms:200}") long thresholdMillis,
+                                           @Value("${app.sql.slow-query.sample-rate:1.0}") double sampleRate) {
+        return new SlowQueryLogger(thresholdMillis, sampleRate);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.springboot.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+// Startup support, see application-fast-startup.properties and the cds Maven profile.
+@Configuration
+public class StartupConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupConfig.class);
+
+    // with spring.main.lazy-initialization=true the schema migration and the JPA bootstrap still run before the
+    // application reports ready, otherwise the first request would pay for them or fail on a bad schema
+    @Bean
+    public static LazyInitializationExcludeFilter eagerDataAccessBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(FlywayMigrationInitializer.class,
+                AbstractEntityManagerFactoryBean.class);
+    }
+
+    // app.startup.report=true logs the slowest startup steps recorded by the BufferingApplicationStartup set up in main
+    @Bean
+    @ConditionalOnProperty(name = "app.startup.report", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> startupReport() {
+        return event -> {
+            ApplicationStartup applicationStartup = event.getApplicationContext().getApplicationStartup();
+            if (!(applicationStartup instanceof BufferingApplicationStartup)) {
+                return;
+            }
+            // getBufferedTimeline() leaves the steps in place for /actuator/startup
+            StartupTimeline timeline = ((BufferingApplicationStartup) applicationStartup).getBufferedTimeline();
+            String slowest = timeline.getEvents().stream()
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(20)
+                    .map(StartupConfig::describe)
+                    .collect(Collectors.joining("\n  "));
+            log.info("Started in {} ms ({} steps recorded), slowest steps:\n  {}", event.getTimeTaken().toMillis(),
+                    timeline.getEvents().size(), slowest);
+        };
+    }
+
+    private static String describe(StartupTimeline.TimelineEvent event) {
+        Duration duration = event.getDuration();
+        StringBuilder description = new StringBuilder()
+                .append(duration.toMillis()).append(" ms ").append(event.getStartupStep().getName());
+        event.getStartupStep().getTags()
+                .forEach(tag -> description.append(' ').append(tag.getKey()).append('=').append(tag.getValue()));
+        return description.toString();
+    }
+
+    // training run for the AppCDS archive (cds Maven profile): boot fully, then exit so the JVM writes the archive
+    @Bean
+    @ConditionalOnProperty(name = "app.startup.exit-after-ready", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> exitAfterReady() {
+        return event -> {
+            ConfigurableApplicationContext context = event.getApplicationContext();
+            System.exit(SpringApplication.exit(context));
+        };
+    }
+}
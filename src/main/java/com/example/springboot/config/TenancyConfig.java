@@ -0,0 +1,54 @@
+package com.example.springboot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+// Discriminator multi-tenancy: every employee row carries a tenant_id and every query is limited to the current
+// tenant's rows (TenantContext). With app.tenancy.enabled=false there is one tenant, Employee.DEFAULT_TENANT;
+// with it on, each request names its tenant in the app.tenancy.header header and one deployment serves them all.
+@Configuration
+public class TenancyConfig {
+
+    // static so it is registered before the entity manager factory is created; the transaction manager takes
+    // its dialect from the factory
+    @Bean
+    public static BeanPostProcessor tenantJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean) {
+                    ((LocalContainerEntityManagerFactoryBean) bean).setJpaDialect(new TenantJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    // async MVC work (the NDJSON export) runs as the tenant of its request; Boot applies it to the task executor
+    @Bean
+    public TaskDecorator tenantTaskDecorator() {
+        return task -> {
+            String tenant = TenantContext.current();
+            return () -> TenantContext.callAs(tenant, () -> {
+                task.run();
+                return null;
+            });
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.tenancy.enabled", havingValue = "true")
+    public FilterRegistrationBean<TenantFilter> tenantFilter(@Value("${app.tenancy.header:X-Tenant-Id}") String header) {
+        FilterRegistrationBean<TenantFilter> registration = new FilterRegistrationBean<>(new TenantFilter(header));
+        // inside the tracing filter, ahead of everything that could read
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.springboot.config;
+
+import com.example.springboot.model.Employee;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.util.function.Supplier;
+
+// The tenant the calling thread works for: set per request by TenantFilter, per batch by the write-behind flusher,
+// carried to the shard threads by ShardedEmployeeService. Threads without one work on Employee.DEFAULT_TENANT,
+// which is all there is while tenancy is off.
+public final class TenantContext {
+
+    private static final ThreadLocal<String> CURRENT_TENANT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        String tenant = CURRENT_TENANT.get();
+        return tenant != null ? tenant : Employee.DEFAULT_TENANT;
+    }
+
+    public static <T> T callAs(String tenant, Supplier<T> call) {
+        String previous = enter(tenant);
+        try {
+            return call.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    // returns the tenant to restore afterwards, null for none
+    static String enter(String tenant) {
+        String previous = CURRENT_TENANT.get();
+        CURRENT_TENANT.set(tenant);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT_TENANT.remove();
+        } else {
+            CURRENT_TENANT.set(previous);
+        }
+    }
+
+    // a cache key of the current tenant: tenants share one cache and its size bound, never each other's entries
+    public static Object cacheKey(Object key) {
+        return new SimpleKey(current(), key);
+    }
+}
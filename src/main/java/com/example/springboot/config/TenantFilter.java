@@ -0,0 +1,49 @@
+package com.example.springboot.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+// Resolves the tenant of each request from the tenant header and runs the request as that tenant (TenantContext).
+// A request without a valid one is refused with 400 before it reaches anything that reads employees.
+public class TenantFilter extends OncePerRequestFilter {
+
+    static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final String header;
+
+    public TenantFilter(String header) {
+        this.header = header;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(header);
+        if (tenant == null || !TENANT_ID.matcher(tenant).matches()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Missing or invalid " + header + " header");
+            return;
+        }
+        // ETags and cached responses are per tenant
+        response.addHeader(HttpHeaders.VARY, header);
+        String previous = TenantContext.enter(tenant);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.restore(previous);
+        }
+    }
+
+    // the actuator endpoints are not tenant data
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+}
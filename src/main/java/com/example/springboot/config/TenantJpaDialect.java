@@ -0,0 +1,23 @@
+package com.example.springboot.config;
+
+import com.example.springboot.model.Employee;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+
+// Enables the tenant filter of the current tenant on the session of every transaction that begins, so all queries in
+// it (EmployeeRepository runs each of its queries in one) only see that tenant's employees.
+public class TenantJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition) throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        entityManager.unwrap(Session.class)
+                .enableFilter(Employee.TENANT_FILTER)
+                .setParameter(Employee.TENANT_PARAMETER, TenantContext.current());
+        return transactionData;
+    }
+}
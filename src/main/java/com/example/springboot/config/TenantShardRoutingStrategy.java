@@ -0,0 +1,33 @@
+package com.example.springboot.config;
+
+import com.example.springboot.model.Employee;
+
+import java.util.Map;
+
+// strategy=tenant: a tenant's employees share a shard; the shard of a tenant is pinned in
+// app.datasource.shards.tenants.<tenant>=<shard>, other tenants are spread by hash. A big tenant can get a shard of
+// its own, and listing a tenant's employees finds them all on one database.
+public class TenantShardRoutingStrategy implements ShardRoutingStrategy {
+
+    private final Map<String, Integer> tenantShards;
+
+    public TenantShardRoutingStrategy(Map<String, Integer> tenantShards) {
+        this.tenantShards = tenantShards;
+    }
+
+    int shardOf(String tenant, int shards) {
+        Integer shard = tenantShards.get(tenant);
+        return shard != null ? shard : Math.floorMod(tenant.hashCode(), shards);
+    }
+
+    @Override
+    public int shardFor(long sequence, Employee employee, int shards) {
+        return shardOf(employee.getTenantId(), shards);
+    }
+
+    // a tenant pinned to another shard later keeps its older employees where they are, lookups fall back to every shard
+    @Override
+    public int shardForEmail(String email, int shards) {
+        return shardOf(TenantContext.current(), shards);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.springboot.config;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+// A span per controller and service call, e.g. EmployeeController.updateEmployee > EmployeeService.getEmployeeById
+// (repository calls are traced by TracingRepositoryInterceptor). Ordered first so the service span wraps the
+// transaction, its connection checkout and commit show up as children; a cache hit has no repository child.
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingAspect {
+
+    private final Tracer tracer;
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("execution(public * com.example.springboot.controller.EmployeeController.*(..))")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("EmployeeController", joinPoint);
+    }
+
+    @Around("execution(public * com.example.springboot.service.EmployeeService+.*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("EmployeeService", joinPoint);
+    }
+
+    private Object trace(String component, ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Span span = tracer.spanBuilder(component + "." + method)
+                .setAttribute("code.namespace", component)
+                .setAttribute("code.function", method)
+                .startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            span.recordException(t);
+            span.setStatus(StatusCode.ERROR);
+            throw t;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.springboot.config;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.nio.file.Path;
+
+// OpenTelemetry tracing, one trace per request: the HTTP server span (TracingFilter), a span per
+// EmployeeController and EmployeeService call (TracingAspect), per repository call (TracingRepositoryInterceptor)
+// and per JDBC statement, connection checkout and commit (TracingJdbcListener). Spans go to a JSON lines file or to an OTLP/HTTP collector.
+@Configuration
+@ConditionalOnProperty(name = "app.tracing.enabled", havingValue = "true")
+public class TracingConfig {
+
+    static final String INSTRUMENTATION_NAME = "com.example.springboot";
+
+    @Bean(destroyMethod = "")
+    public SpanExporter spanExporter(@Value("${app.tracing.exporter:file}") String exporter,
+                                     @Value("${app.tracing.file:traces.jsonl}") Path file,
+                                     @Value("${app.tracing.otlp.endpoint:http://localhost:4318/v1/traces}") String endpoint) {
+        switch (exporter) {
+            case "file":
+                return new JsonFileSpanExporter(file);
+            case "otlp":
+                return OtlpHttpSpanExporter.builder().setEndpoint(endpoint).build();
+            default:
+                throw new IllegalArgumentException("app.tracing.exporter must be file or otlp, was " + exporter);
+        }
+    }
+
+    // shutdown (on context close) exports the spans still buffered and closes the exporter
+    @Bean(destroyMethod = "close")
+    public SdkTracerProvider tracerProvider(SpanExporter spanExporter,
+                                            @Value("${app.tracing.sampling-ratio:1.0}") double samplingRatio,
+                                            @Value("${spring.application.name:spring-boot-testing}") String serviceName) {
+        return SdkTracerProvider.builder()
+                .setResource(Resource.getDefault().merge(
+                        Resource.create(Attributes.of(AttributeKey.stringKey("service.name"), serviceName))))
+                // the ratio decides for new traces only, a request arriving with a traceparent follows the caller's decision
+                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(samplingRatio)))
+                // spans are exported in the background, request threads only hand them over
+                .addSpanProcessor(BatchSpanProcessor.builder(spanExporter).build())
+                .build();
+    }
+
+    @Bean
+    public Tracer tracer(SdkTracerProvider tracerProvider) {
+        return tracerProvider.get(INSTRUMENTATION_NAME);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public TracingAspect tracingAspect(Tracer tracer) {
+        return new TracingAspect(tracer);
+    }
+
+    // Spring Data's hook for advising repository proxies (Boot's repository metrics use the same one); first in
+    // the chain so the span also covers the repository's own transaction
+    @Bean
+    public static BeanPostProcessor repositoryTracingPostProcessor(ObjectProvider<Tracer> tracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(0, new TracingRepositoryInterceptor(tracer.getObject(),
+                                            repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // picked up by DataSourceProxyConfig
+    @Bean
+    public TracingJdbcListener tracingJdbcListener(Tracer tracer) {
+        return new TracingJdbcListener(tracer);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.springboot.config;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// JDBC spans under the current service/repository span: one per statement or batch (named by its SQL verb,
+// the SQL itself in db.statement) plus DataSource.getConnection, i.e. the time spent waiting for the pool,
+// and Connection.commit/rollback.
+public class TracingJdbcListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String SPAN = TracingJdbcListener.class.getName() + ".span";
+
+    private final Tracer tracer;
+
+    public TracingJdbcListener(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining(";\n"));
+        Span span = tracer.spanBuilder(operation(sql))
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute("db.statement", sql)
+                .startSpan();
+        execInfo.addCustomValue(SPAN, span);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span span = execInfo.getCustomValue(SPAN, Span.class);
+        if (span == null) {
+            return;
+        }
+        if (execInfo.isBatch()) {
+            span.setAttribute("db.batch_size", execInfo.getBatchSize());
+        }
+        end(span, execInfo.getThrowable());
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+        String name = spanName(executionContext);
+        if (name != null) {
+            executionContext.addCustomValue(SPAN, tracer.spanBuilder(name).setSpanKind(SpanKind.CLIENT).startSpan());
+        }
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        Span span = executionContext.getCustomValue(SPAN, Span.class);
+        if (span != null) {
+            end(span, executionContext.getThrown());
+        }
+    }
+
+    // every JDBC method call comes through here, only the ones worth a span get a name
+    private static String spanName(MethodExecutionContext executionContext) {
+        String method = executionContext.getMethod().getName();
+        if (executionContext.getTarget() instanceof DataSource && method.equals("getConnection")) {
+            return "DataSource.getConnection";
+        }
+        if (executionContext.getTarget() instanceof Connection && (method.equals("commit") || method.equals("rollback"))) {
+            return "Connection." + method;
+        }
+        return null;
+    }
+
+    // "SELECT", "INSERT", ... keeps the span names few; the full SQL is in db.statement
+    static String operation(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? "JDBC" : trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+
+    private static void end(Span span, Throwable throwable) {
+        if (throwable != null) {
+            span.recordException(throwable);
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+}
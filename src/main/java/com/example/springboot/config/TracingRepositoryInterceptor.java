@@ -0,0 +1,40 @@
+package com.example.springboot.config;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+// A span per repository call, e.g. EmployeeRepository.findById, with the JDBC spans it causes as children.
+// Added to the Spring Data proxy itself (see TracingConfig): the methods are mostly declared on CrudRepository
+// and implemented by SimpleJpaRepository, which an aspect pointcut on EmployeeRepository does not match reliably.
+public class TracingRepositoryInterceptor implements MethodInterceptor {
+
+    private final Tracer tracer;
+    private final String repository;
+
+    public TracingRepositoryInterceptor(Tracer tracer, Class<?> repositoryInterface) {
+        this.tracer = tracer;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String method = invocation.getMethod().getName();
+        Span span = tracer.spanBuilder(repository + "." + method)
+                .setAttribute("code.namespace", repository)
+                .setAttribute("code.function", method)
+                .startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return invocation.proceed();
+        } catch (Throwable t) {
+            span.recordException(t);
+            span.setStatus(StatusCode.ERROR);
+            throw t;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.springboot.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// app.execution.mode=virtual serves every request (and async MVC work such as the NDJSON export) on a virtual thread,
+// so threads parked on MySQL or the connection pool no longer exhaust Tomcat's worker pool.
+// The project still compiles for Java 11, so the JDK 21 factory method is looked up at startup.
+@Configuration
+@ConditionalOnProperty(name = "app.execution.mode", havingValue = "virtual")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("app.execution.mode=virtual needs a Java 21+ runtime, running on "
+                    + Runtime.version(), e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    // decorated like Boot's own task executor would be, e.g. to carry the tenant (TenancyConfig)
+    @Bean
+    public WebMvcConfigurer virtualThreadAsyncSupport(ExecutorService virtualThreadExecutor,
+                                                      ObjectProvider<TaskDecorator> taskDecorator) {
+        TaskExecutorAdapter taskExecutor = new TaskExecutorAdapter(virtualThreadExecutor);
+        taskDecorator.ifAvailable(taskExecutor::setTaskDecorator);
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(taskExecutor);
+            }
+        };
+    }
+}
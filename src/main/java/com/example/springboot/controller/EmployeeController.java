@@ -1,63 +1,257 @@
 package com.example.springboot.controller;
 
 import com.example.springboot.model.Employee;
+import com.example.springboot.exception.WriteQueueFullException;
+import com.example.springboot.model.EmployeeBatchResult;
+import com.example.springboot.model.EmployeeWriteStatus;
 import com.example.springboot.service.EmployeeService;
+import com.example.springboot.service.EmployeeWriteBehindService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String HAS_NEXT_HEADER = "X-Has-Next";
+    static final String NDJSON = "application/x-ndjson";
+
+    // seconds a client should back off when the write-behind queue is full
+    static final String WRITE_QUEUE_RETRY_AFTER = "1";
+
     private EmployeeService employeeService;
+    private EmployeeWriteBehindService writeBehindService;
+    private ObjectMapper objectMapper;
+    private int defaultPageSize;
+    private int maxPageSize;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService,
+                              EmployeeWriteBehindService writeBehindService,
+                              ObjectMapper objectMapper,
+                              @Value("${app.employees.default-page-size:20}") int defaultPageSize,
+                              @Value("${app.employees.max-page-size:100}") int maxPageSize) {
         this.employeeService = employeeService;
+        this.writeBehindService = writeBehindService;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
+    // 201 with the saved employee, or 202 with a tracking id when write-behind is enabled
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public Employee createEmployee(@RequestBody Employee employee){
-        return employeeService.saveEmployee(employee);
+    public ResponseEntity<?> createEmployee(@RequestBody Employee employee){
+        if(!writeBehindService.isEnabled()){
+            return ResponseEntity.status(HttpStatus.CREATED).body(employeeService.saveEmployee(employee));
+        }
+        try {
+            EmployeeWriteStatus status = writeBehindService.enqueue(employee);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/employees/writes/" + status.getTrackingId()))
+                    .body(status);
+        } catch (WriteQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, WRITE_QUEUE_RETRY_AFTER)
+                    .build();
+        }
+    }
+
+    // outcome of a write-behind create: PENDING until its batch is flushed
+    @GetMapping("writes/{trackingId}")
+    public ResponseEntity<EmployeeWriteStatus> getWriteStatus(@PathVariable("trackingId") String trackingId){
+        return writeBehindService.getStatus(trackingId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // bulk create, the report lists saved/rejected counts and the achieved insert rate
+    @PostMapping("batch")
+    public EmployeeBatchResult createEmployees(@RequestBody List<Employee> employees){
+        return employeeService.saveEmployees(employees);
     }
 
+    // page/size mode by default, keyset mode when afterId or cursor is given;
+    // the body stays a plain list and the next page is advertised in the X-Next-Cursor header
     @GetMapping
-    public List<Employee> getAllEmployees(){
-        return employeeService.getAllEmployees();
+    public ResponseEntity<List<Employee>> getAllEmployees(@RequestParam(value = "page", required = false) Integer page,
+                                                          @RequestParam(value = "size", required = false) Integer size,
+                                                          @RequestParam(value = "afterId", required = false) Long afterId,
+                                                          @RequestParam(value = "limit", required = false) Integer limit,
+                                                          @RequestParam(value = "cursor", required = false) String cursor,
+                                                          WebRequest request){
+        // the ETag comes from a table-wide aggregate, so an unchanged table answers 304 before any page is read;
+        // it covers every page because ETags are scoped to the full request URL
+        if(request.checkNotModified(employeeService.getEmployeesVersion())){
+            return null;
+        }
+        if(cursor != null){
+            try {
+                afterId = EmployeeCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        List<Employee> employees;
+        boolean hasNext;
+        if(afterId != null){
+            int pageSize = cappedPageSize(limit);
+            // ask for one extra row so we know whether another page exists without a count query
+            employees = employeeService.getEmployeesAfter(afterId, pageSize + 1);
+            hasNext = employees.size() > pageSize;
+            if(hasNext){
+                employees = employees.subList(0, pageSize);
+            }
+        } else {
+            Slice<Employee> slice = employeeService.getEmployees(page == null ? 0 : Math.max(page, 0), cappedPageSize(size));
+            employees = slice.getContent();
+            hasNext = slice.hasNext();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if(hasNext && !employees.isEmpty()){
+            response.header(NEXT_CURSOR_HEADER, EmployeeCursor.encode(employees.get(employees.size() - 1).getId()));
+        }
+        return response.body(employees);
     }
 
-    @GetMapping("{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId){
-        return employeeService.getEmployeeById(employeeId)
+    // full-table export as newline-delimited JSON, written row by row while the cursor is read
+    @GetMapping(value = "export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportEmployees(){
+        StreamingResponseBody body = outputStream -> {
+            try {
+                employeeService.exportEmployees(employee -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(employee));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    // full-text search (?q=): words of names and emails, matched whole, by prefix or with a typo, best match first
+    @GetMapping(value = "search", params = "q")
+    public ResponseEntity<List<Employee>> searchEmployees(@RequestParam("q") String query,
+                                                          @RequestParam(value = "page", required = false) Integer page,
+                                                          @RequestParam(value = "size", required = false) Integer size){
+        if(query.isBlank()){
+            return ResponseEntity.badRequest().build();
+        }
+        Slice<Employee> slice = employeeService.searchEmployees(query,
+                page == null ? 0 : Math.max(page, 0), cappedPageSize(size));
+        return ResponseEntity.ok()
+                .header(HAS_NEXT_HEADER, String.valueOf(slice.hasNext()))
+                .body(slice.getContent());
+    }
+
+    // prefix search by name, lastName is required because it leads the name index
+    @GetMapping("search")
+    public ResponseEntity<List<Employee>> searchEmployees(@RequestParam("lastName") String lastName,
+                                                          @RequestParam(value = "firstName", required = false) String firstName,
+                                                          @RequestParam(value = "page", required = false) Integer page,
+                                                          @RequestParam(value = "size", required = false) Integer size){
+        Slice<Employee> slice = employeeService.searchEmployeesByName(firstName, lastName,
+                page == null ? 0 : Math.max(page, 0), cappedPageSize(size));
+        return ResponseEntity.ok()
+                .header(HAS_NEXT_HEADER, String.valueOf(slice.hasNext()))
+                .body(slice.getContent());
+    }
+
+    @GetMapping(value = "by-email")
+    public ResponseEntity<Employee> getEmployeeByEmail(@RequestParam("email") String email){
+        return employeeService.getEmployeeByEmail(email)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @GetMapping("{id}")
+    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId, WebRequest request){
+        Optional<Employee> employee = employeeService.getEmployeeById(employeeId);
+        if(employee.isEmpty()){
+            return ResponseEntity.notFound().build();
+        }
+        if(request.checkNotModified(eTag(employee.get()))){
+            // 304 without a body, the status and ETag are already on the response
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag(employee.get())).body(employee.get());
+    }
+
+    // one UPDATE/DELETE statement each, the affected row count decides between 200 and 404
     @PutMapping("{id}")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee){
-        return employeeService.getEmployeeById(employeeId)
-                .map(savedEmployee -> {
-                    savedEmployee.setFirstName(employee.getFirstName());
-                    savedEmployee.setLastName(employee.getLastName());
-                    savedEmployee.setEmail(employee.getEmail());
-
-                    Employee updatedEmployee = employeeService.updateEmployee(savedEmployee);
-                    return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
-                })
-                .orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee,
+                                                   @RequestHeader(value = "If-Match", required = false) String ifMatch){
+        Long expectedVersion = null;
+        if(ifMatch != null && !ifMatch.equals("*")){
+            expectedVersion = versionFromETag(employeeId, ifMatch);
+            if(expectedVersion == null){
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+        }
+
+        try {
+            return employeeService.updateEmployee(employeeId, employee, expectedVersion)
+                    .map(updatedEmployee -> ResponseEntity.ok().eTag(eTag(updatedEmployee)).body(updatedEmployee))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // someone else updated the employee since the client read it
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
     }
 
     @DeleteMapping("{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId){
-        return employeeService.getEmployeeById(employeeId)
-                .map(employee -> {
-                    employeeService.deleteEmployee(employeeId);
-                    return new ResponseEntity<>("Employee deleted successully!", HttpStatus.OK);
-                })
-                .orElseGet(() -> ResponseEntity.notFound().build());
+        if(employeeService.deleteEmployee(employeeId)){
+            return new ResponseEntity<>("Employee deleted successully!", HttpStatus.OK);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    private static String eTag(Employee employee){
+        return employee.getId() + "-" + employee.getVersion();
+    }
+
+    // parses "<id>-<version>" back into the version, null when the ETag is not one of ours for this id
+    private static Long versionFromETag(long employeeId, String eTag){
+        String prefix = "\"" + employeeId + "-";
+        if(!eTag.startsWith(prefix) || !eTag.endsWith("\"")){
+            return null;
+        }
+        try {
+            return Long.parseLong(eTag.substring(prefix.length(), eTag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private int cappedPageSize(Integer requested){
+        if(requested == null || requested < 1){
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        return Math.min(requested, maxPageSize);
     }
 
 }
@@ -0,0 +1,24 @@
+package com.example.springboot.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// opaque token handed to clients so they can ask for the page after the last employee they saw
+final class EmployeeCursor {
+
+    private EmployeeCursor() {
+    }
+
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decode(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -1,9 +1,20 @@
 package com.example.springboot.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.ParamDef;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.search.engine.backend.types.Projectable;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.KeywordField;
 
 import javax.persistence.*;
 
@@ -12,18 +23,80 @@ import javax.persistence.*;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "employees")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Employee.CACHE_REGION)
+@Table(name = "employees", uniqueConstraints = {
+        @UniqueConstraint(name = Employee.EMAIL_UNIQUE_CONSTRAINT, columnNames = {"tenant_id", "email"})
+}, indexes = {
+        // every index leads with the tenant, each query stays within one tenant's range
+        // last name first so "last name prefix" searches can range-scan it too
+        @Index(name = Employee.NAME_INDEX, columnList = "tenant_id, last_name, first_name"),
+        @Index(name = Employee.TENANT_INDEX, columnList = "tenant_id, id")
+})
+// every query of a session sees one tenant's rows (TenancyConfig enables it per transaction); lookups by id and
+// bulk updates/deletes are not filtered by Hibernate and check the tenant themselves
+@FilterDef(name = Employee.TENANT_FILTER, parameters = @ParamDef(name = Employee.TENANT_PARAMETER, type = "string"),
+        defaultCondition = "tenant_id = :" + Employee.TENANT_PARAMETER)
+@Filter(name = Employee.TENANT_FILTER)
+// full-text index of names and email (GET /api/employees/search?q=), updated when a save/update/delete commits
+@Indexed(index = Employee.SEARCH_INDEX)
 public class Employee {
+    // second-level cache regions, sized in ehcache.xml
+    public static final String CACHE_REGION = "employees";
+    public static final String QUERY_CACHE_REGION = "employee-queries";
+
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_employees_tenant_email";
+    public static final String NAME_INDEX = "idx_employees_tenant_last_first";
+    public static final String TENANT_INDEX = "idx_employees_tenant_id";
+
+    public static final String TENANT_FILTER = "tenant";
+    public static final String TENANT_PARAMETER = "tenantId";
+    // the tenant of employees created before tenancy, and of every employee while it is off
+    public static final String DEFAULT_TENANT = "default";
+    // search index and its analyzers (EmployeeSearchAnalysisConfigurer); every name and email field is indexed
+    // twice, as words and as word prefixes in <field>_prefix
+    public static final String SEARCH_INDEX = "employees";
+    public static final String SEARCH_ANALYZER = "employee_words";
+    public static final String SEARCH_PREFIX_ANALYZER = "employee_prefixes";
+    public static final String SEARCH_PREFIX_SUFFIX = "_prefix";
+
+    // pooled ids are handed out 50 at a time without a round trip per insert, which IDENTITY
+    // cannot do and which lets Hibernate group inserts into JDBC batches; or time-ordered ids made on
+    // this node (app.employees.ids.generator=snowflake); sharded employees bring their own id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @GenericGenerator(name = "employees_seq", strategy = "com.example.springboot.config.EmployeeIdGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "employees_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled")
+    })
     private long id;
 
     @Column(name = "first_name", nullable = false)
+    @FullTextField(analyzer = SEARCH_ANALYZER, projectable = Projectable.YES)
+    @FullTextField(name = "firstName" + SEARCH_PREFIX_SUFFIX, analyzer = SEARCH_PREFIX_ANALYZER, searchAnalyzer = SEARCH_ANALYZER)
     private String firstName;
 
     @Column(name = "last_name", nullable = false)
+    @FullTextField(analyzer = SEARCH_ANALYZER, projectable = Projectable.YES)
+    @FullTextField(name = "lastName" + SEARCH_PREFIX_SUFFIX, analyzer = SEARCH_PREFIX_ANALYZER, searchAnalyzer = SEARCH_ANALYZER)
     private String lastName;
 
     @Column(nullable = false)
+    @FullTextField(analyzer = SEARCH_ANALYZER, projectable = Projectable.YES)
+    @FullTextField(name = "email" + SEARCH_PREFIX_SUFFIX, analyzer = SEARCH_PREFIX_ANALYZER, searchAnalyzer = SEARCH_ANALYZER)
     private String email;
+
+    // set from the request's tenant on create (TenantContext), never sent to or taken from clients
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    @KeywordField(projectable = Projectable.YES)
+    @Builder.Default
+    private String tenantId = DEFAULT_TENANT;
+
+    // bumped on every update; used for optimistic locking and as the ETag of the resource,
+    // null when the current version is not known (e.g. after an unconditional PUT); never null in the table
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,30 @@
+package com.example.springboot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmployeeBatchResult {
+    private int received;
+    private int saved;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<Rejection> rejected;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Rejection {
+        // position of the item in the submitted list
+        private int index;
+        private String email;
+        private String reason;
+    }
+}
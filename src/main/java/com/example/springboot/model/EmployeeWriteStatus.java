@@ -0,0 +1,22 @@
+package com.example.springboot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmployeeWriteStatus {
+    private String trackingId;
+    private State state;
+    // set once the employee has been inserted
+    private Long employeeId;
+    private String reason;
+
+    public enum State {
+        PENDING, SAVED, REJECTED, FAILED
+    }
+}
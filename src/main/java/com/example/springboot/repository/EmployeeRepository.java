@@ -1,30 +1,130 @@
 package com.example.springboot.repository;
 
 import com.example.springboot.model.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
+// Every query runs in a transaction, read-only unless the method says otherwise: the tenant filter is enabled when a
+// transaction begins (TenancyConfig). It covers JPQL and derived queries; findById and the bulk updates and deletes
+// below are not filtered by Hibernate, the updates and deletes name the tenant themselves.
+@Transactional(readOnly = true)
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeSearchRepository {
+
+    String CURRENT_TENANT = "#{T(com.example.springboot.config.TenantContext).current()}";
+
+    // JPQL lookups below go through the query cache; native queries are left out on purpose
+    // because Hibernate cannot tell which tables they read and would never invalidate them
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION)
+    })
     Optional<Employee> findByEmail(String email);
 
+    // set-based duplicate check for bulk creates, callers keep the IN list bounded
+    @Query(value = "select e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // offset pagination without the extra count(*) query that Page would need
+    Slice<Employee> findSliceBy(Pageable pageable);
+
+    // keyset pagination: seek past the last seen id instead of skipping rows
+    List<Employee> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+
+    // forward-only cursor over the whole table for exports, must be consumed inside a transaction
+    // (MySQL only honours the fetch size when useCursorFetch=true is set on the connection)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false"),
+            // a full export must not flush the hot entries out of the second-level cache
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query(value = "select e from Employee e order by e.id")
+    Stream<Employee> streamAllBy();
+
+    // prefix search on both names, served by the (last_name, first_name) index
+    Slice<Employee> findByLastNameStartingWithAndFirstNameStartingWith(String lastName, String firstName, Pageable pageable);
+
+    // cheap fingerprint of the whole table: changes on every insert, update and delete;
+    // served from the query cache until the next write to employees
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION)
+    })
+    @Query(value = "select count(e) as count, coalesce(max(e.id), 0) as maxId, coalesce(sum(e.version), 0) as versionSum from Employee e")
+    TableVersion findTableVersion();
+
+    interface TableVersion {
+        long getCount();
+        long getMaxId();
+        long getVersionSum();
+    }
+
+    // the current tenant's employee only, unlike findById/existsById
+    @Query(value = "select e.version from Employee e where e.id = :id and e.tenantId = :" + CURRENT_TENANT)
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    // single-statement writes, the returned row count tells whether the employee existed
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update Employee e set e.firstName = :firstName, e.lastName = :lastName, e.email = :email, " +
+            "e.version = e.version + 1 where e.id = :id and e.tenantId = :" + CURRENT_TENANT)
+    int updateById(@Param("id") long id, @Param("firstName") String firstName,
+                   @Param("lastName") String lastName, @Param("email") String email);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update Employee e set e.firstName = :firstName, e.lastName = :lastName, e.email = :email, " +
+            "e.version = e.version + 1 where e.id = :id and e.version = :version and e.tenantId = :" + CURRENT_TENANT)
+    int updateByIdAndVersion(@Param("id") long id, @Param("version") long version, @Param("firstName") String firstName,
+                             @Param("lastName") String lastName, @Param("email") String email);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from Employee e where e.id = :id and e.tenantId = :" + CURRENT_TENANT)
+    int deleteEmployeeById(@Param("id") long id);
+
     // define custom query using JPQL with index params
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION)
+    })
     @Query(value = "select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
-    Employee findByJPQL(String firstName, String lastName);
+    List<Employee> findByJPQL(String firstName, String lastName);
 
     // define custom query using JPQL with named params
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION)
+    })
     @Query(value = "select e from Employee e where e.firstName =:firstName and e.lastName =:lastName")
-    Employee findByJPQLNamedParams(@Param("firstName") String firstName,@Param("lastName") String lastName);
+    List<Employee> findByJPQLNamedParams(@Param("firstName") String firstName,@Param("lastName") String lastName);
 
+    // native SQL is not filtered, the two native queries name the tenant themselves
     // define custom query using native SQL with named params
-    @Query(value = "select * from employees e where e.first_name =?1 and e.last_name =?2", nativeQuery = true)
-    Employee findByNativeSQL(String firstName, String lastName);
+    @Query(value = "select * from employees e where e.first_name =?1 and e.last_name =?2 and e.tenant_id = ?" + CURRENT_TENANT, nativeQuery = true)
+    List<Employee> findByNativeSQL(String firstName, String lastName);
 
     // define custom query using native SQL with index params
-    @Query(value = "select * from employees e where e.first_name =:firstName and e.last_name =:lastName", nativeQuery = true)
-    Employee findByNativeSQLNamedParams(String firstName, String lastName);
+    @Query(value = "select * from employees e where e.first_name =:firstName and e.last_name =:lastName and e.tenant_id = :" + CURRENT_TENANT, nativeQuery = true)
+    List<Employee> findByNativeSQLNamedParams(String firstName, String lastName);
 
 }
@@ -0,0 +1,19 @@
+package com.example.springboot.repository;
+
+import com.example.springboot.model.Employee;
+
+import java.util.List;
+
+// The employee search index (Hibernate Search, an embedded Lucene index). Saves through the EntityManager are indexed
+// by Hibernate Search itself when their transaction commits; the bulk updates and deletes of EmployeeRepository are
+// not seen by it, their callers index the change here in the same transaction.
+public interface EmployeeSearchRepository {
+
+    // employees of the tenant that match every word, best match first, read from the index alone;
+    // their version is not indexed and is null
+    List<Employee> search(List<String> words, String tenant, int offset, int limit);
+
+    void index(Employee employee);
+
+    void unindex(long id);
+}
@@ -0,0 +1,72 @@
+package com.example.springboot.repository;
+
+import com.example.springboot.model.Employee;
+import org.hibernate.search.engine.search.predicate.dsl.BooleanPredicateClausesStep;
+import org.hibernate.search.engine.search.predicate.dsl.PredicateFinalStep;
+import org.hibernate.search.engine.search.predicate.dsl.SearchPredicateFactory;
+import org.hibernate.search.mapper.orm.Search;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+// Every word of a query has to match a word of the first name, last name or email: as a whole word (scored highest),
+// as the start of one, or, from FUZZY_MIN_LENGTH characters on, with one typo.
+public class EmployeeSearchRepositoryImpl implements EmployeeSearchRepository {
+
+    // shorter words one edit away match too much to be useful
+    static final int FUZZY_MIN_LENGTH = 4;
+    static final float WORD_BOOST = 2f;
+
+    private static final String[] WORD_FIELDS = {"firstName", "lastName", "email"};
+    private static final String[] PREFIX_FIELDS = {
+            "firstName" + Employee.SEARCH_PREFIX_SUFFIX,
+            "lastName" + Employee.SEARCH_PREFIX_SUFFIX,
+            "email" + Employee.SEARCH_PREFIX_SUFFIX};
+
+    private final EntityManager entityManager;
+
+    public EmployeeSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Employee> search(List<String> words, String tenant, int offset, int limit) {
+        return Search.session(entityManager).search(Employee.class)
+                .select(f -> f.composite()
+                        .from(f.id(Long.class), f.field("firstName", String.class), f.field("lastName", String.class),
+                                f.field("email", String.class), f.field("tenantId", String.class))
+                        .asList(fields -> Employee.builder()
+                                .id((Long) fields.get(0))
+                                .firstName((String) fields.get(1))
+                                .lastName((String) fields.get(2))
+                                .email((String) fields.get(3))
+                                .tenantId((String) fields.get(4))
+                                .build()))
+                .where(f -> {
+                    BooleanPredicateClausesStep<?> query = f.bool().filter(f.match().field("tenantId").matching(tenant));
+                    words.forEach(word -> query.must(matchingWord(f, word)));
+                    return query;
+                })
+                .fetchHits(offset, limit);
+    }
+
+    private static PredicateFinalStep matchingWord(SearchPredicateFactory f, String word) {
+        BooleanPredicateClausesStep<?> anyField = f.bool()
+                .should(f.match().fields(WORD_FIELDS).matching(word).boost(WORD_BOOST))
+                .should(f.match().fields(PREFIX_FIELDS).matching(word));
+        if (word.length() >= FUZZY_MIN_LENGTH) {
+            anyField.should(f.match().fields(WORD_FIELDS).matching(word).fuzzy(1));
+        }
+        return anyField;
+    }
+
+    @Override
+    public void index(Employee employee) {
+        Search.session(entityManager).indexingPlan().addOrUpdate(employee);
+    }
+
+    @Override
+    public void unindex(long id) {
+        Search.session(entityManager).indexingPlan().purge(Employee.class, id, null);
+    }
+}
@@ -1,14 +1,28 @@
 package com.example.springboot.service;
 
 import com.example.springboot.model.Employee;
+import com.example.springboot.model.EmployeeBatchResult;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
     public Employee saveEmployee(Employee employee);
+    EmployeeBatchResult saveEmployees(List<Employee> employees);
     List<Employee> getAllEmployees();
+    Slice<Employee> getEmployees(int page, int size);
+    String getEmployeesVersion();
+    List<Employee> getEmployeesAfter(long afterId, int limit);
+    void exportEmployees(Consumer<Employee> sink);
+    Slice<Employee> searchEmployeesByName(String firstName, String lastName, int page, int size);
+    // full-text search of names and email, typo and prefix tolerant, best match first
+    Slice<Employee> searchEmployees(String query, int page, int size);
     Optional<Employee> getEmployeeById(Long id);
-    Employee updateEmployee(Employee updatedEmployee);
-    void deleteEmployee(long id);
+    Optional<Employee> getEmployeeByEmail(String email);
+    // empty when no employee has this id; expectedVersion (nullable) makes the update conditional
+    Optional<Employee> updateEmployee(long id, Employee updatedEmployee, Long expectedVersion);
+    // false when no employee has this id
+    boolean deleteEmployee(long id);
 }
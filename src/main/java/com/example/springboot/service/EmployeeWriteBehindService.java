@@ -0,0 +1,13 @@
+package com.example.springboot.service;
+
+import com.example.springboot.model.Employee;
+import com.example.springboot.model.EmployeeWriteStatus;
+
+import java.util.Optional;
+
+public interface EmployeeWriteBehindService {
+    boolean isEnabled();
+    // queues the employee for a later batch insert, throws WriteQueueFullException when the queue stays full
+    EmployeeWriteStatus enqueue(Employee employee);
+    Optional<EmployeeWriteStatus> getStatus(String trackingId);
+}
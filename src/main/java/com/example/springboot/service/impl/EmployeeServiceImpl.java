@@ -1,50 +1,379 @@
 package com.example.springboot.service.impl;
 
+import com.example.springboot.config.CacheConfig;
+import com.example.springboot.config.EmployeeSearchAnalysisConfigurer;
+import com.example.springboot.config.MetricsConfig;
+import com.example.springboot.config.ReplicaRoutingDataSource;
+import com.example.springboot.config.TenantContext;
 import com.example.springboot.exception.ResourceNotFoundException;
 import com.example.springboot.model.Employee;
+import com.example.springboot.model.EmployeeBatchResult;
 import com.example.springboot.repository.EmployeeRepository;
 import com.example.springboot.service.EmployeeService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+// one timer per method (method tag); cache hits are timed too, misses also show up in employee.cache.load
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true, description = "EmployeeService method latency")
 public class EmployeeServiceImpl implements EmployeeService {
 
+    // keep in line with spring.jpa.properties.hibernate.jdbc.batch_size
+    static final int BATCH_SIZE = 50;
+    // bound the IN list of the duplicate email check
+    static final int EMAIL_CHECK_CHUNK_SIZE = 1000;
+    // every word is one more clause of the search query, words past this are ignored
+    static final int MAX_SEARCH_WORDS = 8;
+    // Lucene collects every hit before the page it returns, so deep pages are not served; search further instead
+    static final int MAX_SEARCH_OFFSET = 10_000;
+    private static final Pattern SEARCH_WORD_SEPARATORS = Pattern.compile(EmployeeSearchAnalysisConfigurer.WORD_SEPARATORS);
+
     private EmployeeRepository employeeRepository;
+    private EntityManager entityManager;
+    private CacheManager cacheManager;
+    private TransactionOperations transactionOperations;
+    // only invoked on a cache miss, so these time the cache loads
+    private Timer byIdLoadTimer;
+    private Timer byEmailLoadTimer;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EntityManager entityManager,
+                               CacheManager cacheManager, TransactionOperations transactionOperations,
+                               MeterRegistry meterRegistry) {
         this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.cacheManager = cacheManager;
+        this.transactionOperations = transactionOperations;
+        this.byIdLoadTimer = cacheLoadTimer(meterRegistry, CacheConfig.EMPLOYEE_BY_ID);
+        this.byEmailLoadTimer = cacheLoadTimer(meterRegistry, CacheConfig.EMPLOYEE_BY_EMAIL);
+    }
+
+    private static Timer cacheLoadTimer(MeterRegistry meterRegistry, String cacheName) {
+        return Timer.builder("employee.cache.load")
+                .description("Time spent loading an employee from the database on a cache miss")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
     }
 
     @Override
     public Employee saveEmployee(Employee employee) {
+        employee.setTenantId(TenantContext.current());
+        // a single insert, the unique index on email decides whether the employee already exists
+        try {
+            return employeeRepository.saveAndFlush(employee);
+        } catch (DataIntegrityViolationException e) {
+            if(isDuplicateEmail(e)){
+                throw new ResourceNotFoundException("Employee already exist with given email:"+ employee.getEmail(), e);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        if(!(e.getCause() instanceof ConstraintViolationException)){
+            return false;
+        }
+        String constraintName = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return constraintName != null
+                && constraintName.toLowerCase().contains(Employee.EMAIL_UNIQUE_CONSTRAINT);
+    }
+
+    // MySQL's default collation ignores case, so the unique index on email does too (accents as well, those only
+    // the index itself catches)
+    static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    // one transaction per batch of BATCH_SIZE, not one for the whole request: a batch the database refuses is
+    // rolled back on its own and retried in halves, so only the refused rows are rejected
+    @Override
+    public EmployeeBatchResult saveEmployees(List<Employee> employees) {
+        long start = System.nanoTime();
+        List<EmployeeBatchResult.Rejection> rejected = new ArrayList<>();
+
+        // reject blank and repeated emails inside the payload itself
+        Set<String> emails = new HashSet<>();
+        List<String> emailList = new ArrayList<>();
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < employees.size(); i++) {
+            String email = employees.get(i).getEmail();
+            if (email == null || email.isBlank()) {
+                rejected.add(new EmployeeBatchResult.Rejection(i, email, "Email is required"));
+            } else if (!emails.add(emailKey(email))) {
+                rejected.add(new EmployeeBatchResult.Rejection(i, email, "Duplicate email in request:" + email));
+            } else {
+                emailList.add(email);
+                candidates.add(i);
+            }
+        }
 
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if(savedEmployee.isPresent()){
-            throw new ResourceNotFoundException("Employee already exist with given email:"+ employee.getEmail());
+        // one IN query per chunk instead of one findByEmail per employee; the database compares with the collation
+        // of the email column, so the emails go in as sent and the index on it is used. Checked on the primary, a
+        // replica may not have the latest employees yet
+        Set<String> existingEmails = new HashSet<>();
+        for (int from = 0; from < emailList.size(); from += EMAIL_CHECK_CHUNK_SIZE) {
+            List<String> chunk = emailList.subList(from, Math.min(from + EMAIL_CHECK_CHUNK_SIZE, emailList.size()));
+            ReplicaRoutingDataSource.onPrimary(() -> employeeRepository.findExistingEmails(chunk))
+                    .forEach(existing -> existingEmails.add(emailKey(existing)));
+        }
+
+        List<Employee> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i : candidates) {
+            Employee employee = employees.get(i);
+            if (existingEmails.contains(emailKey(employee.getEmail()))) {
+                rejected.add(new EmployeeBatchResult.Rejection(i, employee.getEmail(),
+                        "Employee already exist with given email:" + employee.getEmail()));
+            } else {
+                employee.setTenantId(TenantContext.current());
+                accepted.add(employee);
+                acceptedIndexes.add(i);
+            }
+        }
+
+        int saved = 0;
+        for (int from = 0; from < accepted.size(); from += BATCH_SIZE) {
+            int to = Math.min(from + BATCH_SIZE, accepted.size());
+            saved += saveBatch(accepted.subList(from, to), acceptedIndexes.subList(from, to), rejected);
+        }
+        rejected.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+
+        long elapsedNanos = System.nanoTime() - start;
+        return EmployeeBatchResult.builder()
+                .received(employees.size())
+                .saved(saved)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .rowsPerSecond(elapsedNanos == 0 ? 0 : saved * 1_000_000_000d / elapsedNanos)
+                .rejected(rejected)
+                .build();
+    }
+
+    // flush and clear per batch so inserts go out as JDBC batches and the persistence context stays small; flushed
+    // through the repository, a row the checks let through but the database refuses (an email created meanwhile, or
+    // equal to another one only in the column's collation) fails as a DataIntegrityViolationException
+    private int saveBatch(List<Employee> batch, List<Integer> indexes, List<EmployeeBatchResult.Rejection> rejected) {
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                employeeRepository.saveAll(batch);
+                employeeRepository.flush();
+                entityManager.clear();
+            });
+            return batch.size();
+        } catch (DataIntegrityViolationException e) {
+            // the rolled back inserts left a version behind, without it they are new again (the id is generated anew,
+            // or kept when sharded)
+            batch.forEach(employee -> employee.setVersion(null));
+            if (batch.size() > 1) {
+                int half = batch.size() / 2;
+                return saveBatch(batch.subList(0, half), indexes.subList(0, half), rejected)
+                        + saveBatch(batch.subList(half, batch.size()), indexes.subList(half, batch.size()), rejected);
+            }
+            String email = batch.get(0).getEmail();
+            rejected.add(new EmployeeBatchResult.Rejection(indexes.get(0), email, isDuplicateEmail(e)
+                    ? "Employee already exist with given email:" + email
+                    : "Employee refused by the database"));
+            return 0;
         }
-        return employeeRepository.save(employee);
     }
 
+    // the list, search and export reads are read-only transactions, served by a replica when there are any (ReadReplicaConfig)
     @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Slice<Employee> getEmployees(int page, int size) {
+        return employeeRepository.findSliceBy(PageRequest.of(page, size, Sort.by("id")));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getEmployeesVersion() {
+        EmployeeRepository.TableVersion tableVersion = employeeRepository.findTableVersion();
+        return tableVersion.getCount() + "-" + tableVersion.getMaxId() + "-" + tableVersion.getVersionSum();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Employee> getEmployeesAfter(long afterId, int limit) {
+        return employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportEmployees(Consumer<Employee> sink) {
+        try (Stream<Employee> employees = employeeRepository.streamAllBy()) {
+            employees.forEach(employee -> {
+                sink.accept(employee);
+                // nothing is ever written back, so drop each row from the persistence context to keep heap flat
+                entityManager.detach(employee);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Employee> searchEmployeesByName(String firstName, String lastName, int page, int size) {
+        return employeeRepository.findByLastNameStartingWithAndFirstNameStartingWith(
+                lastName, firstName == null ? "" : firstName,
+                PageRequest.of(page, size, Sort.by("lastName", "firstName", "id")));
+    }
+
+    // answered from the search index, which is kept in step with every write (EmployeeSearchRepository)
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Employee> searchEmployees(String query, int page, int size) {
+        List<String> words = searchWords(query);
+        if(words.isEmpty()){
+            return new SliceImpl<>(List.of(), PageRequest.of(page, size), false);
+        }
+        // a long: page * size overflows an int long before it reaches the cap
+        long offset = (long) page * size;
+        if(offset >= MAX_SEARCH_OFFSET){
+            return new SliceImpl<>(List.of(), PageRequest.of(page, size), false);
+        }
+        // one extra hit tells whether there is a next page
+        List<Employee> employees = employeeRepository.search(words, TenantContext.current(), (int) offset, size + 1);
+        boolean moreHits = employees.size() > size;
+        return new SliceImpl<>(moreHits ? employees.subList(0, size) : employees, PageRequest.of(page, size),
+                moreHits && offset + size < MAX_SEARCH_OFFSET);
+    }
+
+    // split the way the index splits names and emails, so each word is matched on its own
+    static List<String> searchWords(String query) {
+        return Arrays.stream(SEARCH_WORD_SEPARATORS.split(query))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .limit(MAX_SEARCH_WORDS)
+                .collect(Collectors.toList());
+    }
+
+    // misses are not cached, so an employee created later is never hidden by a stale empty result; loaded from the
+    // primary, a row from a lagging replica would be served from the cache long after the replica caught up.
+    // Cache keys carry the tenant, and findById is not tenant-filtered, another tenant's employee is a miss.
+    @Override
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEE_BY_ID, key = CacheConfig.TENANT_KEY_ID, unless = "#result == null")
     public Optional<Employee> getEmployeeById(Long id) {
-        return employeeRepository.findById(id);
+        String tenant = TenantContext.current();
+        return byIdLoadTimer.record(() -> ReplicaRoutingDataSource.onPrimary(() -> employeeRepository.findById(id)))
+                .filter(employee -> tenant.equals(employee.getTenantId()));
+    }
+
+    // the email cache only maps an email to an id, the employee itself is taken from the id cache: updates and
+    // deletes evict just the id, and an email entry whose employee is gone or has another email by now is a miss
+    @Override
+    public Optional<Employee> getEmployeeByEmail(String email) {
+        Cache byEmail = cacheManager.getCache(CacheConfig.EMPLOYEE_BY_EMAIL);
+        Cache byId = cacheManager.getCache(CacheConfig.EMPLOYEE_BY_ID);
+        Object key = TenantContext.cacheKey(email);
+        Long cachedId = byEmail == null ? null : byEmail.get(key, Long.class);
+        if(cachedId != null && byId != null){
+            Employee cached = byId.get(TenantContext.cacheKey(cachedId), Employee.class);
+            if(cached != null && emailKey(cached.getEmail()).equals(emailKey(email))){
+                return Optional.of(cached);
+            }
+        }
+        Optional<Employee> employee = byEmailLoadTimer.record(
+                () -> ReplicaRoutingDataSource.onPrimary(() -> employeeRepository.findByEmail(email)));
+        employee.ifPresent(found -> {
+            if(byEmail != null && byId != null){
+                byEmail.put(key, found.getId());
+                byId.put(TenantContext.cacheKey(found.getId()), found);
+            }
+        });
+        return employee;
     }
 
+    // one UPDATE statement, no load-then-merge; the affected row count decides between found and missing
     @Override
-    public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+    @Transactional
+    public Optional<Employee> updateEmployee(long id, Employee updatedEmployee, Long expectedVersion) {
+        int updatedRows;
+        try {
+            updatedRows = expectedVersion == null
+                    ? employeeRepository.updateById(id, updatedEmployee.getFirstName(),
+                            updatedEmployee.getLastName(), updatedEmployee.getEmail())
+                    : employeeRepository.updateByIdAndVersion(id, expectedVersion, updatedEmployee.getFirstName(),
+                            updatedEmployee.getLastName(), updatedEmployee.getEmail());
+        } catch (DataIntegrityViolationException e) {
+            if(isDuplicateEmail(e)){
+                throw new ResourceNotFoundException("Employee already exist with given email:"+ updatedEmployee.getEmail(), e);
+            }
+            throw e;
+        }
+
+        if(updatedRows == 0){
+            // only the conditional update needs to tell "missing" from "stale"; another tenant's employee is missing
+            if(expectedVersion != null && employeeRepository.findVersionById(id).isPresent()){
+                throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+            }
+            return Optional.empty();
+        }
+        evictEmployeeById(id);
+        // an UPDATE cannot return the version it wrote: a conditional update knows it, an unconditional one reads it
+        // back while its UPDATE still locks the row, so that no other update's version is read
+        Long version = expectedVersion != null
+                ? Long.valueOf(expectedVersion + 1)
+                : employeeRepository.findVersionById(id).orElse(null);
+        Employee employee = Employee.builder()
+                .id(id)
+                .firstName(updatedEmployee.getFirstName())
+                .lastName(updatedEmployee.getLastName())
+                .email(updatedEmployee.getEmail())
+                .tenantId(TenantContext.current())
+                .version(version)
+                .build();
+        // the UPDATE bypasses Hibernate Search, the document is replaced when the transaction commits
+        employeeRepository.index(employee);
+        return Optional.of(employee);
     }
 
     @Override
-    public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+    @Transactional
+    public boolean deleteEmployee(long id) {
+        if(employeeRepository.deleteEmployeeById(id) == 0){
+            return false;
+        }
+        evictEmployeeById(id);
+        employeeRepository.unindex(id);
+        return true;
+    }
+
+    // deferred to after the commit: evicted any earlier, a concurrent read could cache the old row again
+    private void evictEmployeeById(long id) {
+        Cache cache = cacheManager.getCache(CacheConfig.EMPLOYEE_BY_ID);
+        if(cache != null){
+            new TransactionAwareCacheDecorator(cache).evict(TenantContext.cacheKey(id));
+        }
     }
 }
@@ -0,0 +1,251 @@
+package com.example.springboot.service.impl;
+
+import com.example.springboot.config.TenantContext;
+import com.example.springboot.exception.WriteQueueFullException;
+import com.example.springboot.model.Employee;
+import com.example.springboot.model.EmployeeBatchResult;
+import com.example.springboot.model.EmployeeWriteStatus;
+import com.example.springboot.service.EmployeeService;
+import com.example.springboot.service.EmployeeWriteBehindService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind for employee creates: POSTs are queued in memory and a single flusher thread inserts them
+// in batches of batch-size, or whatever arrived within flush-interval, through EmployeeService.saveEmployees
+// (one transaction per batch and tenant). Queued employees are lost if the process dies before they are flushed.
+@Service
+public class EmployeeWriteBehindServiceImpl implements EmployeeWriteBehindService, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeWriteBehindServiceImpl.class);
+    // how long an idle flusher blocks before re-checking whether it has been stopped
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private EmployeeService employeeService;
+    private boolean enabled;
+    private int batchSize;
+    private long flushIntervalNanos;
+    private long offerTimeoutMillis;
+    private long shutdownTimeoutMillis;
+
+    private BlockingQueue<PendingWrite> queue;
+    private Cache<String, EmployeeWriteStatus> statuses;
+    private Thread flusher;
+    private volatile boolean running;
+
+    public EmployeeWriteBehindServiceImpl(EmployeeService employeeService,
+                                          @Value("${app.employees.write-behind.enabled:false}") boolean enabled,
+                                          @Value("${app.employees.write-behind.capacity:10000}") int capacity,
+                                          @Value("${app.employees.write-behind.batch-size:500}") int batchSize,
+                                          @Value("${app.employees.write-behind.flush-interval-ms:50}") long flushIntervalMillis,
+                                          @Value("${app.employees.write-behind.offer-timeout-ms:100}") long offerTimeoutMillis,
+                                          @Value("${app.employees.write-behind.shutdown-timeout-ms:30000}") long shutdownTimeoutMillis) {
+        this.employeeService = employeeService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        // statuses are kept long enough for clients to poll them, not forever
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(capacity * 10L)
+                .expireAfterWrite(Duration.ofHours(1))
+                .build();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public EmployeeWriteStatus enqueue(Employee employee) {
+        if (!enabled || !running) {
+            throw new IllegalStateException("Write-behind is not accepting employees");
+        }
+        EmployeeWriteStatus status = EmployeeWriteStatus.builder()
+                .trackingId(UUID.randomUUID().toString())
+                .state(EmployeeWriteStatus.State.PENDING)
+                .build();
+        String tenant = TenantContext.current();
+        String statusKey = statusKey(tenant, status.getTrackingId());
+        statuses.put(statusKey, status);
+        try {
+            // backpressure: wait briefly for room, then push back on the client
+            if (!queue.offer(new PendingWrite(status.getTrackingId(), tenant, employee), offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                statuses.invalidate(statusKey);
+                throw new WriteQueueFullException("Employee write queue is full, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            statuses.invalidate(statusKey);
+            throw new WriteQueueFullException("Interrupted while waiting for room in the employee write queue");
+        }
+        return status;
+    }
+
+    @Override
+    public Optional<EmployeeWriteStatus> getStatus(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(statusKey(TenantContext.current(), trackingId)));
+    }
+
+    // a tenant only sees the statuses of its own writes
+    private static String statusKey(String tenant, String trackingId) {
+        return tenant + "/" + trackingId;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "employee-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // stops accepting writes, then waits for the flusher to drain what is already queued
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher == null) {
+            return;
+        }
+        try {
+            flusher.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive() || !queue.isEmpty()) {
+            log.warn("Write-behind stopped with {} employees still queued", queue.size());
+        }
+        flusher = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void flushLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                List<PendingWrite> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Write-behind flush failed", e);
+            }
+        }
+    }
+
+    // waits for a first write, then coalesces until the batch is full or the flush interval has passed
+    List<PendingWrite> nextBatch() throws InterruptedException {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        PendingWrite first = queue.poll(Math.min(flushIntervalNanos, IDLE_POLL_NANOS), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                break;
+            }
+            PendingWrite next = queue.poll(Math.min(remaining, IDLE_POLL_NANOS), TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+        return batch;
+    }
+
+    // one saveEmployees per tenant in the batch, run as that tenant
+    void flush(List<PendingWrite> batch) {
+        Map<String, List<PendingWrite>> byTenant = new LinkedHashMap<>();
+        batch.forEach(write -> byTenant.computeIfAbsent(write.tenant, tenant -> new ArrayList<>()).add(write));
+        byTenant.forEach((tenant, writes) -> TenantContext.callAs(tenant, () -> {
+            flushTenant(writes);
+            return null;
+        }));
+    }
+
+    private void flushTenant(List<PendingWrite> batch) {
+        List<Employee> employees = new ArrayList<>(batch.size());
+        batch.forEach(write -> employees.add(write.employee));
+        EmployeeBatchResult result;
+        try {
+            result = employeeService.saveEmployees(employees);
+        } catch (RuntimeException e) {
+            // rows the database refuses come back as rejections, this is anything else: retry one by one so only
+            // the culprits fail
+            log.warn("Write-behind batch of {} failed, retrying individually", batch.size(), e);
+            batch.forEach(this::flushOne);
+            return;
+        }
+
+        boolean[] rejected = new boolean[batch.size()];
+        for (EmployeeBatchResult.Rejection rejection : result.getRejected()) {
+            rejected[rejection.getIndex()] = true;
+            complete(batch.get(rejection.getIndex()), EmployeeWriteStatus.State.REJECTED, null, rejection.getReason());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (!rejected[i]) {
+                complete(batch.get(i), EmployeeWriteStatus.State.SAVED, batch.get(i).employee.getId(), null);
+            }
+        }
+    }
+
+    private void flushOne(PendingWrite write) {
+        try {
+            Employee savedEmployee = employeeService.saveEmployee(write.employee);
+            complete(write, EmployeeWriteStatus.State.SAVED, savedEmployee.getId(), null);
+        } catch (RuntimeException e) {
+            complete(write, EmployeeWriteStatus.State.FAILED, null, e.getMessage());
+        }
+    }
+
+    private void complete(PendingWrite write, EmployeeWriteStatus.State state, Long employeeId, String reason) {
+        statuses.put(statusKey(write.tenant, write.trackingId), EmployeeWriteStatus.builder()
+                .trackingId(write.trackingId)
+                .state(state)
+                .employeeId(employeeId)
+                .reason(reason)
+                .build());
+    }
+
+    static final class PendingWrite {
+        private final String trackingId;
+        private final String tenant;
+        private final Employee employee;
+
+        PendingWrite(String trackingId, String tenant, Employee employee) {
+            this.trackingId = trackingId;
+            this.tenant = tenant;
+            this.employee = employee;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.springboot.service.impl;
+
+import com.example.springboot.config.GlobalIdAllocator;
+import com.example.springboot.config.ShardRoutingDataSource;
+import com.example.springboot.config.ShardRoutingStrategy;
+import com.example.springboot.config.TenantContext;
+import com.example.springboot.exception.ResourceNotFoundException;
+import com.example.springboot.model.Employee;
+import com.example.springboot.model.EmployeeBatchResult;
+import com.example.springboot.repository.EmployeeRepository;
+import com.example.springboot.service.EmployeeService;
+import io.opentelemetry.context.Context;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// EmployeeService over N shards (ShardingConfig): each call runs EmployeeServiceImpl, transactions and caches
+// included, on the shard that holds the employee, known from the id; lists and searches ask every shard in
+// parallel and merge. New employees get a global id from GlobalIdAllocator and a shard from the
+// ShardRoutingStrategy. Email uniqueness across shards is checked before each write, the unique index only
+// covers one shard, so two concurrent creates of one email on different shards can both succeed.
+public class ShardedEmployeeService implements EmployeeService, AutoCloseable {
+
+    private static final Comparator<Employee> BY_ID = Comparator.comparingLong(Employee::getId);
+    // close to MySQL's default case-insensitive collation the shards sorted with
+    private static final Comparator<Employee> BY_NAME = Comparator
+            .comparing(Employee::getLastName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Employee::getFirstName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(BY_ID);
+    // every shard returns all rows up to the end of the page asked for, so deep offset pages are not served;
+    // page on with getEmployeesAfter (keyset) instead
+    static final int MAX_PAGE_OFFSET = 10_000;
+
+    private EmployeeServiceImpl delegate;
+    private EmployeeRepository employeeRepository;
+    private GlobalIdAllocator idAllocator;
+    private ShardRoutingStrategy routingStrategy;
+    private int shards;
+    private ExecutorService scatterExecutor;
+
+    public ShardedEmployeeService(EmployeeServiceImpl delegate, EmployeeRepository employeeRepository,
+                                  GlobalIdAllocator idAllocator, ShardRoutingStrategy routingStrategy,
+                                  int shards, int scatterThreads) {
+        this.delegate = delegate;
+        this.employeeRepository = employeeRepository;
+        this.idAllocator = idAllocator;
+        this.routingStrategy = routingStrategy;
+        this.shards = shards;
+        AtomicInteger threads = new AtomicInteger();
+        // the current trace context goes along, shard calls show up under the request's span
+        this.scatterExecutor = Context.taskWrapping(Executors.newFixedThreadPool(scatterThreads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    private <T> T onShard(int shard, Supplier<T> call) {
+        return ShardRoutingDataSource.onShard(shard, call);
+    }
+
+    // runs the call on every shard at once, as the caller's tenant, results in shard order
+    private <T> List<T> onEveryShard(IntFunction<T> call) {
+        String tenant = TenantContext.current();
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> TenantContext.callAs(tenant,
+                    () -> onShard(target, () -> call.apply(target))), scatterExecutor));
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // the shard in the id, -1 for an id that cannot be ours
+    private int shardOf(long id) {
+        int shard = ShardRoutingDataSource.shardOf(id);
+        return shard < shards ? shard : -1;
+    }
+
+    private void assignId(Employee employee) {
+        employee.setTenantId(TenantContext.current());
+        long sequence = idAllocator.next();
+        employee.setId(ShardRoutingDataSource.shardedId(sequence, routingStrategy.shardFor(sequence, employee, shards)));
+    }
+
+    private boolean emailTakenByOther(String email, long id) {
+        return getEmployeeByEmail(email).filter(existing -> existing.getId() != id).isPresent();
+    }
+
+    @Override
+    public Employee saveEmployee(Employee employee) {
+        if (emailTakenByOther(employee.getEmail(), 0)) {
+            throw new ResourceNotFoundException("Employee already exist with given email:" + employee.getEmail());
+        }
+        assignId(employee);
+        return onShard(ShardRoutingDataSource.shardOf(employee.getId()), () -> delegate.saveEmployee(employee));
+    }
+
+    // blank, repeated and existing emails are rejected here across all shards, the rest is saved shard by shard
+    @Override
+    public EmployeeBatchResult saveEmployees(List<Employee> employees) {
+        long start = System.nanoTime();
+        List<EmployeeBatchResult.Rejection> rejected = new ArrayList<>();
+
+        Set<String> emails = new HashSet<>();
+        List<String> emailList = new ArrayList<>();
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < employees.size(); i++) {
+            String email = employees.get(i).getEmail();
+            if (email == null || email.isBlank()) {
+                rejected.add(new EmployeeBatchResult.Rejection(i, email, "Email is required"));
+            } else if (!emails.add(EmployeeServiceImpl.emailKey(email))) {
+                rejected.add(new EmployeeBatchResult.Rejection(i, email, "Duplicate email in request:" + email));
+            } else {
+                emailList.add(email);
+                candidates.add(i);
+            }
+        }
+
+        Set<String> existingEmails = new HashSet<>();
+        onEveryShard(shard -> {
+            List<String> existing = new ArrayList<>();
+            for (int from = 0; from < emailList.size(); from += EmployeeServiceImpl.EMAIL_CHECK_CHUNK_SIZE) {
+                int to = Math.min(from + EmployeeServiceImpl.EMAIL_CHECK_CHUNK_SIZE, emailList.size());
+                existing.addAll(employeeRepository.findExistingEmails(emailList.subList(from, to)));
+            }
+            return existing;
+        }).forEach(existing -> existing.forEach(email -> existingEmails.add(EmployeeServiceImpl.emailKey(email))));
+
+        // per shard: the employees and their positions in the request
+        Map<Integer, List<Integer>> indexesByShard = new HashMap<>();
+        for (int i : candidates) {
+            Employee employee = employees.get(i);
+            if (existingEmails.contains(EmployeeServiceImpl.emailKey(employee.getEmail()))) {
+                rejected.add(new EmployeeBatchResult.Rejection(i, employee.getEmail(),
+                        "Employee already exist with given email:" + employee.getEmail()));
+            } else {
+                assignId(employee);
+                indexesByShard.computeIfAbsent(ShardRoutingDataSource.shardOf(employee.getId()), shard -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<EmployeeBatchResult> results = onEveryShard(shard -> {
+            List<Integer> indexes = indexesByShard.getOrDefault(shard, List.of());
+            List<Employee> shardEmployees = new ArrayList<>(indexes.size());
+            indexes.forEach(i -> shardEmployees.add(employees.get(i)));
+            return shardEmployees.isEmpty() ? null : delegate.saveEmployees(shardEmployees);
+        });
+        int saved = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            EmployeeBatchResult result = results.get(shard);
+            if (result == null) {
+                continue;
+            }
+            saved += result.getSaved();
+            List<Integer> indexes = indexesByShard.get(shard);
+            for (EmployeeBatchResult.Rejection rejection : result.getRejected()) {
+                rejected.add(new EmployeeBatchResult.Rejection(indexes.get(rejection.getIndex()),
+                        rejection.getEmail(), rejection.getReason()));
+            }
+        }
+        rejected.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+
+        long elapsedNanos = System.nanoTime() - start;
+        return EmployeeBatchResult.builder()
+                .received(employees.size())
+                .saved(saved)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .rowsPerSecond(elapsedNanos == 0 ? 0 : saved * 1_000_000_000d / elapsedNanos)
+                .rejected(rejected)
+                .build();
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        List<Employee> employees = new ArrayList<>();
+        onEveryShard(shard -> delegate.getAllEmployees()).forEach(employees::addAll);
+        employees.sort(BY_ID);
+        return employees;
+    }
+
+    // page p of the merged order is among the first (p + 1) * size rows of each shard: deep offset pages get
+    // expensive, keyset pages (getEmployeesAfter) cost the same at any depth
+    @Override
+    public Slice<Employee> getEmployees(int page, int size) {
+        if((long) page * size >= MAX_PAGE_OFFSET){
+            return new SliceImpl<>(List.of(), PageRequest.of(page, size, Sort.by("id")), false);
+        }
+        int perShard = (int) Math.min((long) (page + 1) * size, Integer.MAX_VALUE);
+        return mergePage(onEveryShard(shard -> delegate.getEmployees(0, perShard)), page, size, BY_ID, Sort.by("id"));
+    }
+
+    @Override
+    public Slice<Employee> searchEmployeesByName(String firstName, String lastName, int page, int size) {
+        if((long) page * size >= MAX_PAGE_OFFSET){
+            return new SliceImpl<>(List.of(), PageRequest.of(page, size, Sort.by("lastName", "firstName", "id")), false);
+        }
+        int perShard = (int) Math.min((long) (page + 1) * size, Integer.MAX_VALUE);
+        return mergePage(onEveryShard(shard -> delegate.searchEmployeesByName(firstName, lastName, 0, perShard)),
+                page, size, BY_NAME, Sort.by("lastName", "firstName", "id"));
+    }
+
+    // one search index per instance holds the employees of every shard, answered without touching a shard
+    @Override
+    public Slice<Employee> searchEmployees(String query, int page, int size) {
+        return delegate.searchEmployees(query, page, size);
+    }
+
+    private static Slice<Employee> mergePage(List<Slice<Employee>> shardSlices, int page, int size,
+                                             Comparator<Employee> order, Sort sort) {
+        List<Employee> merged = new ArrayList<>();
+        boolean shardHasMore = false;
+        for (Slice<Employee> slice : shardSlices) {
+            merged.addAll(slice.getContent());
+            shardHasMore |= slice.hasNext();
+        }
+        merged.sort(order);
+        long from = (long) page * size;
+        int end = (int) Math.min(from + size, merged.size());
+        List<Employee> content = from >= merged.size() ? List.of() : new ArrayList<>(merged.subList((int) from, end));
+        return new SliceImpl<>(content, PageRequest.of(page, size, sort),
+                (shardHasMore || merged.size() > from + size) && from + size < MAX_PAGE_OFFSET);
+    }
+
+    // changes whenever one shard's version does
+    @Override
+    public String getEmployeesVersion() {
+        return String.join(".", onEveryShard(shard -> delegate.getEmployeesVersion()));
+    }
+
+    @Override
+    public List<Employee> getEmployeesAfter(long afterId, int limit) {
+        List<Employee> merged = new ArrayList<>();
+        onEveryShard(shard -> delegate.getEmployeesAfter(afterId, limit)).forEach(merged::addAll);
+        merged.sort(BY_ID);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    // shard after shard on the calling thread: the sink is not thread-safe, rows are in id order within a shard only
+    @Override
+    public void exportEmployees(Consumer<Employee> sink) {
+        for (int shard = 0; shard < shards; shard++) {
+            onShard(shard, () -> {
+                delegate.exportEmployees(sink);
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public Optional<Employee> getEmployeeById(Long id) {
+        int shard = shardOf(id);
+        return shard < 0 ? Optional.empty() : onShard(shard, () -> delegate.getEmployeeById(id));
+    }
+
+    // the strategy's shard first, then all the others
+    @Override
+    public Optional<Employee> getEmployeeByEmail(String email) {
+        int preferred = routingStrategy.shardForEmail(email, shards);
+        if (preferred != ShardRoutingStrategy.ANY_SHARD) {
+            Optional<Employee> employee = onShard(preferred, () -> delegate.getEmployeeByEmail(email));
+            if (employee.isPresent()) {
+                return employee;
+            }
+        }
+        return onEveryShard(shard -> shard == preferred ? Optional.<Employee>empty() : delegate.getEmployeeByEmail(email))
+                .stream()
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    @Override
+    public Optional<Employee> updateEmployee(long id, Employee updatedEmployee, Long expectedVersion) {
+        int shard = shardOf(id);
+        if (shard < 0) {
+            return Optional.empty();
+        }
+        if (updatedEmployee.getEmail() != null && emailTakenByOther(updatedEmployee.getEmail(), id)) {
+            throw new ResourceNotFoundException("Employee already exist with given email:" + updatedEmployee.getEmail());
+        }
+        return onShard(shard, () -> delegate.updateEmployee(id, updatedEmployee, expectedVersion));
+    }
+
+    @Override
+    public boolean deleteEmployee(long id) {
+        int shard = shardOf(id);
+        return shard >= 0 && onShard(shard, () -> delegate.deleteEmployee(id));
+    }
+
+    @Override
+    public void close() {
+        scatterExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,21 @@
+-- employees, as mapped by com.example.springboot.model.Employee
+create table employees (
+    id bigint not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    version bigint,
+    primary key (id),
+    -- also the duplicate check on insert, EmployeeServiceImpl maps violations of it by name
+    constraint uk_employees_email unique (email)
+) engine=InnoDB;
+
+-- prefix search by last name, then first name
+create index idx_employees_last_first on employees (last_name, first_name);
+
+-- MySQL has no sequences, so the pooled employees_seq generator (increment 50) keeps its value in a table
+create table employees_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into employees_seq values (1);
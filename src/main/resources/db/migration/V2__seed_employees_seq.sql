@@ -0,0 +1,6 @@
+-- Databases created by ddl-auto=update are baselined at V1 (spring.flyway.baseline-on-migrate) and start here.
+-- Move the pooled generator past the existing ids: a value v hands out ids v-49..v, so v must be max(id) + 50 or more.
+-- A fresh, empty table keeps its initial value.
+update employees_seq
+set next_val = (select max(id) + 50 from employees)
+where next_val < (select coalesce(max(id) + 50, 0) from employees);
@@ -0,0 +1,9 @@
+-- one row, stamped on the primary by ReadReplicas every app.datasource.replicas.check-interval-ms (epoch millis,
+-- application clock) and read back on each replica: how old the stamp a replica sees is, is its replication lag
+create table replication_heartbeat (
+    id int not null,
+    beat_at bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+insert into replication_heartbeat values (1, 0);
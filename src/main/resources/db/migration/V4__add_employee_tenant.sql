@@ -0,0 +1,11 @@
+-- discriminator multi-tenancy (TenancyConfig): every employee belongs to a tenant, existing ones to 'default'
+alter table employees add column tenant_id varchar(64) not null default 'default';
+
+-- emails are unique within a tenant; the unique index also serves lookups by email
+alter table employees drop index uk_employees_email;
+alter table employees add constraint uk_employees_tenant_email unique (tenant_id, email);
+
+-- the name search and the id order (pages, keyset pages, exports) within one tenant
+drop index idx_employees_last_first on employees;
+create index idx_employees_tenant_last_first on employees (tenant_id, last_name, first_name);
+create index idx_employees_tenant_id on employees (tenant_id, id);
@@ -0,0 +1,5 @@
+-- rows written before the version column was managed (or around Hibernate) have no version; null + 1 stays null,
+-- so such a row would never get a new version (ETag) on update and would add nothing to the list ETag's sum
+update employees set version = 0 where version is null;
+
+alter table employees modify version bigint not null default 0;
@@ -0,0 +1,31 @@
+package com.example.springboot;
+
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import java.io.IOException;
+
+// For booting the full application from the test classpath (the JMH benchmarks and the Gatling load test):
+// keeps test classes and the @Configuration classes nested in them (e.g. EmployeeServiceCachingTests) out of
+// the component scan, as Spring Boot's test support does for @SpringBootTest.
+public class TestClassExcludeFilter extends TypeExcludeFilter {
+
+    private static final String JUNIT_TEST = "org.junit.jupiter.api.Test";
+
+    public static ApplicationContextInitializer<ConfigurableApplicationContext> initializer() {
+        return context -> context.getBeanFactory()
+                .registerSingleton(TestClassExcludeFilter.class.getName(), new TestClassExcludeFilter());
+    }
+
+    @Override
+    public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) throws IOException {
+        String className = metadataReader.getClassMetadata().getClassName();
+        int nested = className.indexOf('$');
+        MetadataReader outermost = nested < 0 ? metadataReader
+                : metadataReaderFactory.getMetadataReader(className.substring(0, nested));
+        return outermost.getAnnotationMetadata().hasAnnotatedMethods(JUNIT_TEST);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataSourcePoolConfigTests {
+
+    // the pool is never started, so no database is needed
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(DataSourcePoolConfig.class);
+
+    @DisplayName("JUnit test for the core based default pool size")
+    @Test
+    public void givenNoPoolSize_whenContextStarts_thenPoolSizedFromCores() {
+        contextRunner.withBean(HikariDataSource.class, HikariDataSource::new)
+                .run(context -> assertThat(context.getBean(HikariDataSource.class).getMaximumPoolSize())
+                .isEqualTo(DataSourcePoolConfig.defaultMaximumPoolSize(Runtime.getRuntime().availableProcessors())));
+    }
+
+    @DisplayName("JUnit test for an explicit pool size")
+    @Test
+    public void givenPoolSizeProperty_whenContextStarts_thenPoolSizeIsKept() {
+        contextRunner.withPropertyValues("spring.datasource.hikari.maximum-pool-size=7")
+                .withBean(HikariDataSource.class, () -> {
+                    // stands in for Boot binding spring.datasource.hikari.* onto the data source
+                    HikariDataSource dataSource = new HikariDataSource();
+                    dataSource.setMaximumPoolSize(7);
+                    return dataSource;
+                })
+                .run(context -> assertThat(context.getBean(HikariDataSource.class).getMaximumPoolSize()).isEqualTo(7));
+    }
+}
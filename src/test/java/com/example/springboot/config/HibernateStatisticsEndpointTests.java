@@ -0,0 +1,53 @@
+package com.example.springboot.config;
+
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class HibernateStatisticsEndpointTests {
+
+    private static QueryStatistics queryStatistics(long executions, long totalMillis) {
+        QueryStatistics queryStatistics = mock(QueryStatistics.class);
+        given(queryStatistics.getExecutionCount()).willReturn(executions);
+        given(queryStatistics.getExecutionTotalTime()).willReturn(totalMillis);
+        return queryStatistics;
+    }
+
+    @DisplayName("JUnit test for the statistics report")
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenStatistics_whenRead_thenStatementCountAndQueriesByTotalTime() {
+        Statistics statistics = mock(Statistics.class);
+        given(statistics.getPrepareStatementCount()).willReturn(42L);
+        given(statistics.getQueries()).willReturn(new String[]{"select fast", "select slow"});
+        QueryStatistics fast = queryStatistics(100, 10);
+        QueryStatistics slow = queryStatistics(2, 500);
+        given(statistics.getQueryStatistics("select fast")).willReturn(fast);
+        given(statistics.getQueryStatistics("select slow")).willReturn(slow);
+
+        Map<String, Object> report = new HibernateStatisticsEndpoint(statistics).statistics();
+
+        assertThat((Map<String, Object>) report.get("statements")).containsEntry("prepared", 42L);
+        List<Map<String, Object>> queries = (List<Map<String, Object>>) report.get("queries");
+        assertThat(queries).extracting(query -> query.get("query")).containsExactly("select slow", "select fast");
+    }
+
+    @DisplayName("JUnit test for resetting the statistics")
+    @Test
+    public void givenStatistics_whenReset_thenCleared() {
+        Statistics statistics = mock(Statistics.class);
+
+        new HibernateStatisticsEndpoint(statistics).reset();
+
+        verify(statistics).clear();
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.springboot.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class ReadReplicaRoutingTests {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private Connection primaryConnection;
+    private DataSource primary;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        primaryConnection = mock(Connection.class);
+        given(primaryConnection.prepareStatement(ReadReplicas.STAMP_HEARTBEAT)).willReturn(mock(PreparedStatement.class));
+        primary = dataSource(primaryConnection);
+    }
+
+    @AfterEach
+    public void clearTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private static DataSource dataSource(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        given(dataSource.getConnection()).willReturn(connection);
+        return dataSource;
+    }
+
+    // a replica whose replication_heartbeat row holds beatAt
+    private static Connection replicaConnection(long beatAt) throws SQLException {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        given(connection.isValid(anyInt())).willReturn(true);
+        given(connection.prepareStatement(ReadReplicas.READ_HEARTBEAT)).willReturn(statement);
+        given(statement.executeQuery()).willReturn(resultSet);
+        given(resultSet.next()).willReturn(true);
+        given(resultSet.getLong(1)).willReturn(beatAt);
+        return connection;
+    }
+
+    private ReadReplicas readReplicas(boolean heartbeat, ReadReplicas.Replica... replicas) {
+        ReadReplicas readReplicas = new ReadReplicas(List.of(replicas), 1000, 1000, heartbeat, () -> NOW);
+        readReplicas.setPrimary(primary);
+        readReplicas.check();
+        return readReplicas;
+    }
+
+    @DisplayName("JUnit test for routing read-only transactions to a replica")
+    @Test
+    public void givenHealthyReplica_whenConnecting_thenOnlyReadOnlyTransactionsUseIt() throws SQLException {
+        Connection replicaConnection = replicaConnection(NOW - 200);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                readReplicas(true, new ReadReplicas.Replica("replica-1", dataSource(replicaConnection))));
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        assertThat(ReplicaRoutingDataSource.onPrimary(() -> {
+            try {
+                return routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        })).isSameAs(primaryConnection);
+    }
+
+    @DisplayName("JUnit test for reads alternating between replicas")
+    @Test
+    public void givenTwoReplicas_whenConnecting_thenRoundRobin() throws SQLException {
+        Connection first = replicaConnection(NOW);
+        Connection second = replicaConnection(NOW);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, readReplicas(true,
+                new ReadReplicas.Replica("replica-1", dataSource(first)),
+                new ReadReplicas.Replica("replica-2", dataSource(second))));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(List.of(routing.getConnection(), routing.getConnection(), routing.getConnection()))
+                .containsExactly(first, second, first);
+    }
+
+    @DisplayName("JUnit test for a replica lagging more than max-lag")
+    @Test
+    public void givenLaggingReplica_whenChecked_thenReadsGoToPrimary() throws SQLException {
+        ReadReplicas readReplicas = readReplicas(true,
+                new ReadReplicas.Replica("replica-1", dataSource(replicaConnection(NOW - 5_000))));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, readReplicas);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(readReplicas.healthy()).isEmpty();
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    // the stamp of this check has not replicated yet, the replica is as current as replication allows
+    @DisplayName("JUnit test for a replica showing the previous check's heartbeat")
+    @Test
+    public void givenReplicaOneCheckBehind_whenChecked_thenTakesReads() throws SQLException {
+        ReadReplicas.Replica previousTick = new ReadReplicas.Replica("replica-1", dataSource(replicaConnection(NOW - 1_050)));
+        ReadReplicas.Replica threeTicksBehind = new ReadReplicas.Replica("replica-2", dataSource(replicaConnection(NOW - 3_100)));
+        ReadReplicas readReplicas = readReplicas(true, previousTick, threeTicksBehind);
+
+        assertThat(readReplicas.healthy()).containsExactly(previousTick);
+        assertThat(previousTick.getLagMillis()).isEqualTo(50);
+        assertThat(threeTicksBehind.getLagMillis()).isEqualTo(2_100);
+    }
+
+    @DisplayName("JUnit test for a replica that cannot be reached")
+    @Test
+    public void givenReplicaDown_whenConnecting_thenPrimaryAndReplicaTakenOut() throws SQLException {
+        DataSource replicaDataSource = dataSource(replicaConnection(NOW));
+        ReadReplicas readReplicas = readReplicas(false, new ReadReplicas.Replica("replica-1", replicaDataSource));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, readReplicas);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        given(replicaDataSource.getConnection()).willThrow(new SQLTransientConnectionException("timeout"));
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(readReplicas.healthy()).isEmpty();
+    }
+
+    @DisplayName("JUnit test for read-your-writes after a write request")
+    @Test
+    public void givenWrite_whenFiltered_thenCookieSetAndPinnedToPrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(3000, () -> NOW);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/employees/1"), response, pinnedRecorder(pinned));
+
+        assertThat(pinned).isTrue();
+        assertThat(response.getCookie(ReadYourWritesFilter.COOKIE_NAME).getValue()).isEqualTo(Long.toString(NOW));
+        assertThat(ReplicaRoutingDataSource.pinnedToPrimary()).isFalse();
+    }
+
+    @DisplayName("JUnit test for reads inside and past the read-your-writes window")
+    @Test
+    public void givenLastWriteCookie_whenReading_thenPinnedOnlyWithinWindow() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(3000, () -> NOW);
+        AtomicBoolean pinned = new AtomicBoolean();
+        MockHttpServletRequest recent = new MockHttpServletRequest("GET", "/api/employees/1");
+        recent.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(NOW - 1000)));
+        MockHttpServletRequest old = new MockHttpServletRequest("GET", "/api/employees/1");
+        old.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(NOW - 5000)));
+
+        filter.doFilter(recent, new MockHttpServletResponse(), pinnedRecorder(pinned));
+        assertThat(pinned).isTrue();
+        filter.doFilter(old, new MockHttpServletResponse(), pinnedRecorder(pinned));
+        assertThat(pinned).isFalse();
+    }
+
+    private static MockFilterChain pinnedRecorder(AtomicBoolean pinned) {
+        return new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                pinned.set(ReplicaRoutingDataSource.pinnedToPrimary());
+            }
+        };
+    }
+}
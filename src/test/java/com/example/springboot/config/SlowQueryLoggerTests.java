@@ -0,0 +1,81 @@
+package com.example.springboot.config;
+
+import com.example.springboot.repository.EmployeeRepository;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class SlowQueryLoggerTests {
+
+    private static final String SQL = "select * from employees where email=? and last_name=?";
+
+    private static ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setElapsedTime(elapsedMillis);
+        execInfo.setSuccess(true);
+        return execInfo;
+    }
+
+    // parameters set out of order, as a driver wrapper may record them
+    private static List<QueryInfo> query() throws NoSuchMethodException {
+        QueryInfo queryInfo = new QueryInfo(SQL);
+        queryInfo.getParametersList().add(List.of(
+                new ParameterSetOperation(PreparedStatement.class.getMethod("setString", int.class, String.class), new Object[]{2, "Lotfi"}),
+                new ParameterSetOperation(PreparedStatement.class.getMethod("setString", int.class, String.class), new Object[]{1, "flotfi@gmail.com"})));
+        return List.of(queryInfo);
+    }
+
+    @DisplayName("JUnit test for a statement slower than the threshold")
+    @Test
+    public void givenSlowQuery_whenAfterQuery_thenLoggedWithParametersAndRepositoryMethod(CapturedOutput output) throws Exception {
+        SlowQueryLogger slowQueryLogger = new SlowQueryLogger(100, 1.0);
+        List<QueryInfo> queries = query();
+        // a stand-in for the Spring Data proxy, the statement runs inside EmployeeRepository.findByEmail
+        EmployeeRepository employeeRepository = (EmployeeRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{EmployeeRepository.class}, (proxy, method, args) -> {
+                    slowQueryLogger.afterQuery(execution(150), queries);
+                    return null;
+                });
+
+        employeeRepository.findByEmail("flotfi@gmail.com");
+
+        assertThat(output).contains("slow-query elapsedMs=150 caller=EmployeeRepository.findByEmail");
+        assertThat(output).contains("sql=\"" + SQL + "\" params=[(flotfi@gmail.com,Lotfi)]");
+    }
+
+    @DisplayName("JUnit test for a statement outside a repository call")
+    @Test
+    public void givenSlowQueryOutsideRepository_whenAfterQuery_thenCallerIsApplicationFrame(CapturedOutput output) throws Exception {
+        new SlowQueryLogger(100, 1.0).afterQuery(execution(150), query());
+
+        assertThat(output).contains("caller=SlowQueryLoggerTests.givenSlowQueryOutsideRepository_whenAfterQuery_thenCallerIsApplicationFrame");
+    }
+
+    @DisplayName("JUnit test for a statement faster than the threshold")
+    @Test
+    public void givenFastQuery_whenAfterQuery_thenNothingLogged(CapturedOutput output) throws Exception {
+        new SlowQueryLogger(100, 1.0).afterQuery(execution(99), query());
+
+        assertThat(output).doesNotContain("slow-query");
+    }
+
+    @DisplayName("JUnit test for a zero sample rate")
+    @Test
+    public void givenZeroSampleRate_whenAfterQuery_thenNothingLogged(CapturedOutput output) throws Exception {
+        new SlowQueryLogger(100, 0.0).afterQuery(execution(500), query());
+
+        assertThat(output).doesNotContain("slow-query");
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.springboot.config;
+
+import org.hibernate.MappingException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SnowflakeIdsTests {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @DisplayName("Snowflake ids carry their creation time, node id and sequence")
+    @Test
+    public void givenNode_whenNext_thenIdDecodesToTimeAndNode() {
+        // given
+        SnowflakeIds ids = new SnowflakeIds(513, 1000, () -> NOW);
+
+        // when
+        long first = ids.next();
+        long second = ids.next();
+
+        // then
+        assertThat(SnowflakeIds.timestampOf(first)).isEqualTo(NOW);
+        assertThat(SnowflakeIds.nodeIdOf(first)).isEqualTo(513);
+        assertThat(second).isEqualTo(first + 1);
+        assertThat(first).isPositive();
+    }
+
+    @DisplayName("Snowflake ids are unique and increasing per thread when many threads create them at once")
+    @Test
+    public void givenConcurrentThreads_whenNext_thenNoCollisions() throws Exception {
+        // given
+        int threads = 8;
+        int perThread = 200_000;
+        SnowflakeIds ids = new SnowflakeIds(1, 1000, System::currentTimeMillis);
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // when
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit((Callable<long[]>) () -> {
+                long[] created = new long[perThread];
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    created[i] = ids.next();
+                }
+                return created;
+            }));
+        }
+
+        // then
+        Set<Long> unique = new HashSet<>(threads * perThread * 2);
+        for (Future<long[]> future : futures) {
+            long[] created = future.get();
+            for (int i = 0; i < created.length; i++) {
+                assertThat(unique.add(created[i])).isTrue();
+                if (i > 0) {
+                    assertThat(created[i]).isGreaterThan(created[i - 1]);
+                }
+            }
+        }
+        executor.shutdown();
+        assertThat(unique).hasSize(threads * perThread);
+    }
+
+    @DisplayName("Snowflake ids keep increasing when the clock moves back less than the allowed skew")
+    @Test
+    public void givenClockMovedBackWithinLimit_whenNext_thenIdsKeepIncreasing() {
+        // given
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIds ids = new SnowflakeIds(1, 1000, clock::get);
+        long before = ids.next();
+
+        // when
+        clock.set(NOW - 500);
+        long during = ids.next();
+        clock.set(NOW + 1);
+        long after = ids.next();
+
+        // then - the last timestamp is kept until the clock passes it
+        assertThat(during).isGreaterThan(before);
+        assertThat(SnowflakeIds.timestampOf(during)).isEqualTo(NOW);
+        assertThat(after).isGreaterThan(during);
+        assertThat(SnowflakeIds.timestampOf(after)).isEqualTo(NOW + 1);
+    }
+
+    @DisplayName("Snowflake ids fail when the clock moves back further than the allowed skew")
+    @Test
+    public void givenClockMovedBackBeyondLimit_whenNext_thenThrows() {
+        // given
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIds ids = new SnowflakeIds(1, 1000, clock::get);
+        ids.next();
+
+        // when
+        clock.set(NOW - 1001);
+
+        // then
+        assertThatThrownBy(ids::next).isInstanceOf(IllegalStateException.class).hasMessageContaining("1001 ms");
+    }
+
+    @DisplayName("Snowflake ids wait for the next millisecond once its sequence is used up")
+    @Test
+    public void givenSequenceUsedUp_whenNext_thenWaitsForNextMillisecond() {
+        // given - the clock ticks after 4100 reads
+        AtomicInteger reads = new AtomicInteger();
+        SnowflakeIds ids = new SnowflakeIds(1, 1000, () -> reads.incrementAndGet() > 4100 ? NOW + 1 : NOW);
+        long last = 0;
+        for (int i = 0; i <= SnowflakeIds.MAX_SEQUENCE; i++) {
+            last = ids.next();
+        }
+
+        // when
+        long next = ids.next();
+
+        // then
+        assertThat(SnowflakeIds.timestampOf(last)).isEqualTo(NOW);
+        assertThat(SnowflakeIds.timestampOf(next)).isEqualTo(NOW + 1);
+        assertThat(next).isGreaterThan(last);
+        assertThat(reads.get()).isGreaterThan(4100);
+    }
+
+    @DisplayName("Snowflake ids refuse node ids that do not fit")
+    @Test
+    public void givenNodeIdOutOfRange_whenCreated_thenThrows() {
+        assertThatThrownBy(() -> new SnowflakeIds(SnowflakeIds.MAX_NODE_ID + 1, 1000, () -> NOW))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("Snowflake ids need a node id set explicitly, there is no default")
+    @Test
+    public void givenNodeIdMissingOrOutOfRange_whenConfigured_thenThrows() {
+        assertThat(EmployeeIdGenerator.nodeId(Map.of(EmployeeIdGenerator.NODE_ID_SETTING, "513"))).isEqualTo(513);
+        assertThatThrownBy(() -> EmployeeIdGenerator.nodeId(Map.of()))
+                .isInstanceOf(MappingException.class).hasMessageContaining(EmployeeIdGenerator.NODE_ID_SETTING);
+        assertThatThrownBy(() -> EmployeeIdGenerator.nodeId(Map.of(EmployeeIdGenerator.NODE_ID_SETTING, "-1")))
+                .isInstanceOf(MappingException.class);
+        assertThatThrownBy(() -> EmployeeIdGenerator.nodeId(Map.of(EmployeeIdGenerator.NODE_ID_SETTING, "1024")))
+                .isInstanceOf(MappingException.class);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.springboot.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class StartupConfigTests {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.setApplicationStartup(new BufferingApplicationStartup(1024)))
+            .withUserConfiguration(StartupConfig.class);
+
+    @DisplayName("JUnit test for the startup report")
+    @Test
+    public void givenStartupReportEnabled_whenApplicationReady_thenSlowestStepsLogged(CapturedOutput output) {
+        contextRunner.withPropertyValues("app.startup.report=true")
+                .run(context -> {
+                    context.publishEvent(new ApplicationReadyEvent(new SpringApplication(), new String[0],
+                            context.getSourceApplicationContext(), Duration.ofMillis(42)));
+
+                    assertThat(output).contains("Started in 42 ms");
+                    assertThat(output).contains("spring.context.refresh");
+                });
+    }
+
+    @DisplayName("JUnit test for the default (no startup report)")
+    @Test
+    public void givenDefaults_whenContextStarts_thenNoStartupListeners() {
+        contextRunner.run(context -> {
+            assertThat(context).doesNotHaveBean("startupReport");
+            assertThat(context).doesNotHaveBean("exitAfterReady");
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.springboot.config;
+
+import com.example.springboot.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TenancyConfigTests {
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withUserConfiguration(TenancyConfig.class);
+
+    private final TenantFilter filter = new TenantFilter("X-Tenant-Id");
+
+    // tenancy is off by default: no filter, everything runs as the default tenant
+    @DisplayName("JUnit test for tenancy disabled by default")
+    @Test
+    public void givenDefaultProperties_whenContextStarts_thenNoTenantFilter() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(FilterRegistrationBean.class));
+        contextRunner.withPropertyValues("app.tenancy.enabled=true")
+                .run(context -> assertThat(context).hasSingleBean(FilterRegistrationBean.class));
+    }
+
+    @DisplayName("JUnit test for TenantFilter (missing or invalid tenant)")
+    @Test
+    public void givenMissingOrInvalidTenant_whenFiltered_thenBadRequest() throws Exception {
+        MockHttpServletResponse missing = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees"), missing, new MockFilterChain());
+
+        MockHttpServletRequest invalid = new MockHttpServletRequest("GET", "/api/employees");
+        invalid.addHeader("X-Tenant-Id", "acme' or '1'='1");
+        MockHttpServletResponse invalidResponse = new MockHttpServletResponse();
+        filter.doFilter(invalid, invalidResponse, new MockFilterChain());
+
+        assertThat(missing.getStatus()).isEqualTo(400);
+        assertThat(invalidResponse.getStatus()).isEqualTo(400);
+    }
+
+    @DisplayName("JUnit test for TenantFilter (request runs as its tenant)")
+    @Test
+    public void givenTenantHeader_whenFiltered_thenChainRunsAsTenant() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees");
+        request.addHeader("X-Tenant-Id", "acme");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> seen.set(TenantContext.current()));
+
+        assertThat(seen).hasValue("acme");
+        assertThat(response.getHeader("Vary")).isEqualTo("X-Tenant-Id");
+        assertThat(TenantContext.current()).isEqualTo(Employee.DEFAULT_TENANT);
+    }
+
+    @DisplayName("JUnit test for TenantFilter (actuator is not tenant data)")
+    @Test
+    public void givenActuatorRequest_whenFiltered_thenPassesWithoutTenant() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @DisplayName("JUnit test for tenantTaskDecorator (async work runs as the submitting tenant)")
+    @Test
+    public void givenTenant_whenTaskDecorated_thenTaskRunsAsTenant() {
+        TaskDecorator decorator = new TenancyConfig().tenantTaskDecorator();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        Runnable task = TenantContext.callAs("acme", () -> decorator.decorate(() -> seen.set(TenantContext.current())));
+        task.run();
+
+        assertThat(seen).hasValue("acme");
+        assertThat(TenantContext.current()).isEqualTo(Employee.DEFAULT_TENANT);
+    }
+
+    @DisplayName("JUnit test for TenantContext cache keys")
+    @Test
+    public void givenTwoTenants_whenCacheKey_thenKeysDiffer() {
+        Object acme = TenantContext.callAs("acme", () -> TenantContext.cacheKey(1L));
+        Object globex = TenantContext.callAs("globex", () -> TenantContext.cacheKey(1L));
+
+        assertThat(acme).isNotEqualTo(globex);
+        assertThat(acme).isEqualTo(TenantContext.callAs("acme", () -> TenantContext.cacheKey(1L)));
+    }
+}
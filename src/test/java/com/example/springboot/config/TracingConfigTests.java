@@ -0,0 +1,173 @@
+package com.example.springboot.config;
+
+import com.example.springboot.model.Employee;
+import com.example.springboot.repository.EmployeeRepository;
+import com.example.springboot.service.EmployeeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class TracingConfigTests {
+
+    private InMemorySpanExporter spanExporter;
+    private Tracer tracer;
+
+    @BeforeEach
+    public void setup() {
+        spanExporter = InMemorySpanExporter.create();
+        tracer = tracer(Sampler.alwaysOn());
+    }
+
+    private Tracer tracer(Sampler sampler) {
+        return SdkTracerProvider.builder()
+                .setSampler(sampler)
+                .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+                .build()
+                .get(TracingConfig.INSTRUMENTATION_NAME);
+    }
+
+    private <T> T traced(T target) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new TracingAspect(tracer));
+        return proxyFactory.getProxy();
+    }
+
+    private SpanData span(String name) {
+        return spanExporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no span " + name + " in " + spanExporter.getFinishedSpanItems()));
+    }
+
+    @DisplayName("JUnit test for nested service, repository and JDBC spans")
+    @Test
+    public void givenServiceCallingRepository_whenCalled_thenSpansAreNested() {
+        TracingJdbcListener jdbcListener = new TracingJdbcListener(tracer);
+        List<QueryInfo> queries = List.of(new QueryInfo("select * from employees where id=?"));
+        // the statement runs inside the repository call, as it would behind the real DataSource proxy
+        EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+        given(employeeRepository.findById(1L)).willAnswer(invocation -> {
+            ExecutionInfo execInfo = new ExecutionInfo();
+            execInfo.setSuccess(true);
+            jdbcListener.beforeQuery(execInfo, queries);
+            jdbcListener.afterQuery(execInfo, queries);
+            return Optional.of(Employee.builder().id(1L).firstName("Fadel").build());
+        });
+        ProxyFactory proxyFactory = new ProxyFactory(employeeRepository);
+        proxyFactory.addAdvice(new TracingRepositoryInterceptor(tracer, EmployeeRepository.class));
+        EmployeeRepository repository = (EmployeeRepository) proxyFactory.getProxy();
+        EmployeeService employeeService = mock(EmployeeService.class);
+        given(employeeService.getEmployeeById(1L)).willAnswer(invocation -> repository.findById(1L));
+
+        traced(employeeService).getEmployeeById(1L);
+
+        SpanData serviceSpan = span("EmployeeService.getEmployeeById");
+        SpanData repositorySpan = span("EmployeeRepository.findById");
+        SpanData jdbcSpan = span("SELECT");
+        assertThat(repositorySpan.getParentSpanId()).isEqualTo(serviceSpan.getSpanId());
+        assertThat(jdbcSpan.getParentSpanId()).isEqualTo(repositorySpan.getSpanId());
+        assertThat(jdbcSpan.getKind()).isEqualTo(SpanKind.CLIENT);
+        assertThat(jdbcSpan.getAttributes().asMap().values()).contains("select * from employees where id=?");
+    }
+
+    @DisplayName("JUnit test for a span of a failing service call")
+    @Test
+    public void givenServiceThrows_whenCalled_thenSpanHasErrorStatus() {
+        EmployeeService employeeService = mock(EmployeeService.class);
+        given(employeeService.getEmployeeById(1L)).willThrow(new IllegalStateException("boom"));
+
+        try {
+            traced(employeeService).getEmployeeById(1L);
+        } catch (IllegalStateException expected) {
+        }
+
+        SpanData span = span("EmployeeService.getEmployeeById");
+        assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+        assertThat(span.getEvents()).extracting("name").containsExactly("exception");
+    }
+
+    @DisplayName("JUnit test for the request span with an incoming traceparent")
+    @Test
+    public void givenTraceparentHeader_whenFiltered_thenServerSpanJoinsTrace() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/employees/1");
+        request.addHeader("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+        MockFilterChain filterChain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse) {
+                servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/employees/{id}");
+            }
+        };
+
+        new TracingFilter(tracer).doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        SpanData span = span("PUT /api/employees/{id}");
+        assertThat(span.getKind()).isEqualTo(SpanKind.SERVER);
+        assertThat(span.getTraceId()).isEqualTo("0af7651916cd43dd8448eb211c80319c");
+        assertThat(span.getParentSpanId()).isEqualTo("b7ad6b7169203331");
+    }
+
+    @DisplayName("JUnit test for a sampling ratio of 0")
+    @Test
+    public void givenSamplingRatioZero_whenCalled_thenNoSpans() {
+        tracer = tracer(Sampler.parentBased(Sampler.traceIdRatioBased(0.0)));
+        EmployeeService employeeService = mock(EmployeeService.class);
+
+        traced(employeeService).getEmployeeById(1L);
+
+        assertThat(spanExporter.getFinishedSpanItems()).isEmpty();
+    }
+
+    @DisplayName("JUnit test for writing spans to the trace file")
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenFileExporter_whenSpansExported_thenOneJsonLinePerSpan(@TempDir Path directory) throws Exception {
+        traced(mock(EmployeeService.class)).getEmployeeById(1L);
+        Path file = directory.resolve("traces.jsonl");
+        JsonFileSpanExporter fileExporter = new JsonFileSpanExporter(file);
+
+        fileExporter.export(spanExporter.getFinishedSpanItems());
+        fileExporter.shutdown();
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(1);
+        Map<String, Object> json = new ObjectMapper().readValue(lines.get(0), Map.class);
+        assertThat(json).containsEntry("name", "EmployeeService.getEmployeeById").containsKeys("traceId", "spanId", "durationMicros");
+    }
+
+    @DisplayName("JUnit test for JDBC span names")
+    @Test
+    public void givenSql_whenOperation_thenLeadingVerb() {
+        assertThat(TracingJdbcListener.operation("  update employees set email=? where id=?")).isEqualTo("UPDATE");
+        assertThat(TracingJdbcListener.operation("{call refresh()}")).isEqualTo("JDBC");
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.springboot.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadsConfigTests {
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadsConfig.class);
+
+    // default execution mode keeps Tomcat's platform thread pool
+    @DisplayName("JUnit test for default (platform) execution mode")
+    @Test
+    public void givenPlatformMode_whenContextStarts_thenTomcatExecutorIsUntouched() {
+        contextRunner.withPropertyValues("app.execution.mode=platform")
+                .run(context -> assertThat(context).doesNotHaveBean(TomcatProtocolHandlerCustomizer.class));
+    }
+
+    // virtual execution mode either installs the executor (Java 21+) or fails fast with a clear message
+    @DisplayName("JUnit test for virtual execution mode")
+    @Test
+    public void givenVirtualMode_whenContextStarts_thenVirtualExecutorOrClearFailure() {
+        contextRunner.withPropertyValues("app.execution.mode=virtual")
+                .run(context -> {
+                    if (Runtime.version().feature() >= 21) {
+                        assertThat(context).hasSingleBean(TomcatProtocolHandlerCustomizer.class);
+                    } else {
+                        assertThat(context).hasFailed();
+                        assertThat(context.getStartupFailure()).hasStackTraceContaining("needs a Java 21+ runtime");
+                    }
+                });
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.springboot.controller;
 
 import com.example.springboot.model.Employee;
+import com.example.springboot.exception.WriteQueueFullException;
+import com.example.springboot.model.EmployeeBatchResult;
+import com.example.springboot.model.EmployeeWriteStatus;
 import com.example.springboot.service.EmployeeService;
+import com.example.springboot.service.EmployeeWriteBehindService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -10,14 +14,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.hamcrest.CoreMatchers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +46,9 @@ public class EmployeeControllerTests {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeWriteBehindService writeBehindService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -71,13 +88,104 @@ public class EmployeeControllerTests {
 
     }
 
+    // JUnit test for CreateEmployee Rest API with write-behind enabled
+    @DisplayName("JUnit test for CreateEmployee Rest API (write-behind)")
+    @Test
+    public void givenWriteBehindEnabled_whenCreateEmployee_thenReturnAccepted() throws Exception {
+        // given - precondition or setup
+        given(writeBehindService.isEnabled()).willReturn(true);
+        given(writeBehindService.enqueue(any(Employee.class))).willReturn(EmployeeWriteStatus.builder()
+                .trackingId("42").state(EmployeeWriteStatus.State.PENDING).build());
+
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/employees/writes/42"))
+                .andExpect(jsonPath("$.trackingId", is("42")))
+                .andExpect(jsonPath("$.state", is("PENDING")));
+        verify(employeeService, never()).saveEmployee(any(Employee.class));
+    }
+
+    // JUnit test for CreateEmployee Rest API when the write-behind queue is full
+    @DisplayName("JUnit test for CreateEmployee Rest API (write-behind queue full)")
+    @Test
+    public void givenFullWriteQueue_whenCreateEmployee_thenReturn503() throws Exception {
+        // given - precondition or setup
+        given(writeBehindService.isEnabled()).willReturn(true);
+        given(writeBehindService.enqueue(any(Employee.class))).willThrow(new WriteQueueFullException("full"));
+
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    // JUnit test for GET write status REST API
+    @DisplayName("JUnit test for GET write status REST API")
+    @Test
+    public void givenTrackingId_whenGetWriteStatus_thenReturnStatus() throws Exception {
+        // given - precondition or setup
+        given(writeBehindService.getStatus("42")).willReturn(Optional.of(EmployeeWriteStatus.builder()
+                .trackingId("42").state(EmployeeWriteStatus.State.SAVED).employeeId(7L).build()));
+        given(writeBehindService.getStatus("43")).willReturn(Optional.empty());
+
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/writes/{trackingId}", "42"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("SAVED")))
+                .andExpect(jsonPath("$.employeeId", is(7)));
+        mockMvc.perform(get("/api/employees/writes/{trackingId}", "43"))
+                .andExpect(status().isNotFound());
+    }
+
+    // JUnit test for CreateEmployees (batch) Rest API
+    @DisplayName("JUnit test for CreateEmployees batch Rest API")
+    @Test
+    public void givenEmployeesList_whenCreateEmployees_thenReturnBatchReport() throws Exception {
+        // given - precondition or setup
+        EmployeeBatchResult result = EmployeeBatchResult.builder()
+                .received(2)
+                .saved(1)
+                .elapsedMillis(4)
+                .rowsPerSecond(250)
+                .rejected(List.of(new EmployeeBatchResult.Rejection(1, employee.getEmail(),
+                        "Duplicate email in request:" + employee.getEmail())))
+                .build();
+        given(employeeService.saveEmployees(anyList())).willReturn(result);
+
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(employee, employee))));
+
+        // then -verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved", is(1)))
+                .andExpect(jsonPath("$.rowsPerSecond", is(250.0)))
+                .andExpect(jsonPath("$.rejected[0].index", is(1)));
+    }
+
     // JUnit test for GetAllEmployees Rest API
     @DisplayName("JUnit test for GetAllEmployees Rest API")
     @Test
     public void givenEmployeesList_whenGetAllEmployess_thenReturnEmployeesList() throws Exception {
         // given - precondition or setup
-        given(employeeService.getAllEmployees())
-                .willReturn(List.of(employee));
+        given(employeeService.getEmployees(0, 20))
+                .willReturn(new SliceImpl<>(List.of(employee)));
 
         // when - action or the behaviour that we are going to test
         ResultActions response = mockMvc.perform(get("/api/employees"));
@@ -86,12 +194,173 @@ public class EmployeeControllerTests {
         response
                 .andExpect(status().isOk())
                 .andDo(print())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$.size()", is(1)))
                 .andExpect(jsonPath("$[0].firstName", is(employee.getFirstName())))
                 .andExpect(jsonPath("$[0].lastName", is(employee.getLastName())))
                 .andExpect(jsonPath("$[0].email", is(employee.getEmail())));
     }
 
+    // JUnit test for GetAllEmployees Rest API with a page size above the configured maximum
+    @DisplayName("JUnit test for GetAllEmployees Rest API -- page size is capped")
+    @Test
+    public void givenTooLargePageSize_whenGetAllEmployees_thenPageSizeIsCapped() throws Exception {
+        // given - precondition or setup
+        employee.setId(7L);
+        given(employeeService.getEmployees(2, 100))
+                .willReturn(new SliceImpl<>(List.of(employee), PageRequest.of(2, 100), true));
+
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("page", "2")
+                .param("size", "100000"));
+
+        // then -verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andExpect(jsonPath("$.size()", is(1)));
+        verify(employeeService).getEmployees(2, 100);
+    }
+
+    // JUnit test for GetAllEmployees Rest API in keyset mode
+    @DisplayName("JUnit test for GetAllEmployees Rest API -- keyset pagination with cursor")
+    @Test
+    public void givenCursor_whenGetAllEmployees_thenReturnNextKeysetPage() throws Exception {
+        // given - precondition or setup
+        Employee first = Employee.builder().id(11L).firstName("a").lastName("b").email("a.b").build();
+        Employee second = Employee.builder().id(12L).firstName("c").lastName("d").email("c.d").build();
+        Employee third = Employee.builder().id(13L).firstName("e").lastName("f").email("e.f").build();
+        given(employeeService.getEmployeesAfter(10L, 3))
+                .willReturn(List.of(first, second, third));
+
+        // when - action or the behaviour that we are going to test
+        String nextCursor = mockMvc.perform(get("/api/employees")
+                        .param("afterId", "10")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[1].id", is(12)))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        given(employeeService.getEmployeesAfter(12L, 3))
+                .willReturn(List.of(third));
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("cursor", nextCursor)
+                .param("limit", "2"));
+
+        // then -verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].id", is(13)));
+    }
+
+    // NEGATIVE scenario
+    // JUnit test for GetAllEmployees Rest API with a malformed cursor
+    @DisplayName("JUnit test for GetAllEmployees Rest API -- NEGATIVE SCENARIO invalid cursor")
+    @Test
+    public void givenInvalidCursor_whenGetAllEmployees_thenReturnBadRequest() throws Exception {
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("cursor", "not-a-cursor"));
+
+        // then -verify the output
+        response.andExpect(status().isBadRequest());
+    }
+
+    // JUnit test for ExportEmployees Rest API
+    @DisplayName("JUnit test for ExportEmployees Rest API")
+    @Test
+    public void givenEmployeesList_whenExportEmployees_thenStreamNdjson() throws Exception {
+        // given - precondition or setup
+        Employee employee2 = Employee.builder()
+                .firstName("Saad")
+                .lastName("Lotfi")
+                .email("Saad.astekgroup.ma")
+                .build();
+        willAnswer(invocation -> {
+            Consumer<Employee> sink = invocation.getArgument(0);
+            sink.accept(employee);
+            sink.accept(employee2);
+            return null;
+        }).given(employeeService).exportEmployees(any());
+
+        // when - action or the behaviour that we are going to test
+        MvcResult mvcResult = mockMvc.perform(get("/api/employees/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(mvcResult));
+
+        // then -verify the output
+        response.andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(employee) + "\n"
+                                + objectMapper.writeValueAsString(employee2) + "\n"));
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    // JUnit test for SearchEmployees Rest API
+    @DisplayName("JUnit test for SearchEmployees Rest API")
+    @Test
+    public void givenNamePrefixes_whenSearchEmployees_thenReturnEmployeesList() throws Exception {
+        // given - precondition or setup
+        given(employeeService.searchEmployeesByName("Fir", "Lot", 0, 20))
+                .willReturn(new SliceImpl<>(List.of(employee, employee), PageRequest.of(0, 20), false));
+
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/search")
+                .param("firstName", "Fir")
+                .param("lastName", "Lot"));
+
+        // then -verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string("X-Has-Next", "false"))
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].lastName", is(employee.getLastName())));
+    }
+
+    // JUnit test for full-text SearchEmployees Rest API
+    @DisplayName("JUnit test for full-text SearchEmployees Rest API")
+    @Test
+    public void givenQuery_whenSearchEmployees_thenReturnMatchesAndNextPageFlag() throws Exception {
+        // given - precondition or setup
+        given(employeeService.searchEmployees("firda lotf", 1, 20))
+                .willReturn(new SliceImpl<>(List.of(employee), PageRequest.of(1, 20), true));
+
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/search")
+                .param("q", "firda lotf")
+                .param("page", "1"));
+
+        // then -verify the output
+        response.andExpect(status().isOk())
+                .andExpect(header().string("X-Has-Next", "true"))
+                .andExpect(jsonPath("$.size()", is(1)));
+        mockMvc.perform(get("/api/employees/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+        verify(employeeService, never()).searchEmployeesByName(any(), any(), anyInt(), anyInt());
+    }
+
+    // JUnit test for GetEmployeeByEmail Rest API
+    @DisplayName("JUnit test for GetEmployeeByEmail Rest API")
+    @Test
+    public void givenEmployeeEmail_whenGetEmployeeByEmail_thenReturnEmployeeObject() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getEmployeeByEmail(employee.getEmail()))
+                .willReturn(Optional.of(employee));
+
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/by-email").param("email", employee.getEmail()));
+
+        // then -verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.email", is(employee.getEmail())));
+    }
+
     // POSITIVE scenario - valid employee id
     // JUnit test for GetEmployeeById Rest API
     @Test
@@ -114,6 +383,47 @@ public class EmployeeControllerTests {
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
     }
 
+    // JUnit test for GetEmployeeById Rest API with a matching If-None-Match header
+    @Test
+    @DisplayName("JUnit test for GetEmployeeById Rest API -- conditional GET")
+    public void givenMatchingETag_whenGetEmployeeById_thenReturnNotModified() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        employee.setId(employeeId);
+        employee.setVersion(3L);
+        given(employeeService.getEmployeeById(employeeId))
+                .willReturn(Optional.of(employee));
+        String eTag = mockMvc.perform(get("/api/employees/{id}", employeeId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header("If-None-Match", eTag));
+
+        // then -verify the output
+        response.andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    // JUnit test for GetAllEmployees Rest API with a matching If-None-Match header
+    @Test
+    @DisplayName("JUnit test for GetAllEmployees Rest API -- conditional GET")
+    public void givenUnchangedTable_whenGetAllEmployees_thenReturnNotModifiedWithoutReadingPage() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getEmployeesVersion()).willReturn("1-1-0");
+
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .header("If-None-Match", "\"1-1-0\""));
+
+        // then -verify the output
+        response.andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(employeeService, never()).getEmployees(anyInt(), anyInt());
+    }
+
     // NAGATIVE scenario - valid employee id
     // JUnit test for GetEmployeeById Rest API
     @Test
@@ -143,9 +453,13 @@ public class EmployeeControllerTests {
         newEmployee.setFirstName("changed");
         newEmployee.setLastName("Lchanged");
         newEmployee.setEmail("Echanged");
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
-        given(employeeService.updateEmployee(any(Employee.class)))
-                .willAnswer((invocation -> invocation.getArgument(0)));
+        given(employeeService.updateEmployee(eq(employeeId), any(Employee.class), isNull()))
+                .willAnswer(invocation -> {
+                    Employee updatedEmployee = invocation.getArgument(1);
+                    updatedEmployee.setId(employeeId);
+                    updatedEmployee.setVersion(4L);
+                    return Optional.of(updatedEmployee);
+                });
 
         // when - action or the behaviour that we are going to test
         ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
@@ -157,7 +471,56 @@ public class EmployeeControllerTests {
                 .andDo(print())
                 .andExpect(jsonPath("$.firstName", is(newEmployee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(newEmployee.getLastName())))
+                .andExpect(header().string("ETag", "\"1-4\""))
                 .andExpect(jsonPath("$.email", is(newEmployee.getEmail())));
+        verify(employeeService, never()).getEmployeeById(anyLong());
+    }
+
+    // POSITIVE scenario - conditional update
+    // JUnit test for UpdateEmployee Rest API
+    @DisplayName("JUnit test for UpdateEmployee Rest API -- If-Match")
+    @Test
+    public void givenCurrentETag_whenUpdateEmployee_thenReturnUpdatedEmployeeWithNewETag() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.updateEmployee(eq(employeeId), any(Employee.class), eq(2L)))
+                .willAnswer(invocation -> {
+                    Employee updatedEmployee = invocation.getArgument(1);
+                    updatedEmployee.setId(employeeId);
+                    updatedEmployee.setVersion(3L);
+                    return Optional.of(updatedEmployee);
+                });
+
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header("If-Match", "\"1-2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then -verify the output
+        response.andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(jsonPath("$.version", is(3)));
+    }
+
+    // NEGATIVE scenario - stale If-Match
+    // JUnit test for UpdateEmployee Rest API
+    @DisplayName("JUnit test for UpdateEmployee Rest API -- NEGATIVE SCENARIO stale If-Match")
+    @Test
+    public void givenStaleETag_whenUpdateEmployee_thenReturnPreconditionFailed() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.updateEmployee(eq(employeeId), any(Employee.class), eq(1L)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, employeeId));
+
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header("If-Match", "\"1-1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then -verify the output
+        response.andExpect(status().isPreconditionFailed());
     }
 
     // NEGATIVE scenario
@@ -171,9 +534,8 @@ public class EmployeeControllerTests {
         newEmployee.setFirstName("changed");
         newEmployee.setLastName("Lchanged");
         newEmployee.setEmail("Echanged");
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.empty());
-        given(employeeService.updateEmployee(any(Employee.class)))
-                .willAnswer((invocation -> invocation.getArgument(0)));
+        given(employeeService.updateEmployee(eq(employeeId), any(Employee.class), isNull()))
+                .willReturn(Optional.empty());
 
         // when - action or the behaviour that we are going to test
         ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
@@ -192,8 +554,7 @@ public class EmployeeControllerTests {
     public void givenValidEmployeeId_whenDeleteEmployee_thenReturn200Status() throws Exception {
         // given - precondition or setup
         long employeeId = 1L;
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
-        willDoNothing().given(employeeService).deleteEmployee(employeeId);
+        given(employeeService.deleteEmployee(employeeId)).willReturn(true);
 
         // when - action or the behaviour that we are going to test
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
@@ -210,8 +571,7 @@ public class EmployeeControllerTests {
     public void givenInvalidEmployeeId_whenDeleteEmployee_thenReturn404Status() throws Exception {
         // given - precondition or setup
         long employeeId = 1L;
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.empty());
-        willDoNothing().given(employeeService).deleteEmployee(employeeId);
+        given(employeeService.deleteEmployee(employeeId)).willReturn(false);
 
         // when - action or the behaviour that we are going to test
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
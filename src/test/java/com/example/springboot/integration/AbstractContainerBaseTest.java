@@ -4,9 +4,12 @@ import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MySQLContainer;
 
+// the schema is created by the same Flyway migrations (db/migration) that run in production,
+// Hibernate only validates against it (spring.jpa.hibernate.ddl-auto=validate)
 public abstract class AbstractContainerBaseTest {
 
-    static final MySQLContainer MY_SQL_CONTAINER;
+    // also used by the Gatling load test (src/gatling) when Docker is available
+    public static final MySQLContainer MY_SQL_CONTAINER;
 
     static {
         MY_SQL_CONTAINER = new MySQLContainer("mysql:8.0")
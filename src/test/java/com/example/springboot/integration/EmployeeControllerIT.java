@@ -10,13 +10,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -33,10 +37,20 @@ public class EmployeeControllerIT {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // each request is pinned to the number of SQL statements it issues today, an extra round trip fails the test
+    private SqlStatementCounter statements;
+
     private Employee employee;
 
     @BeforeEach
     void setup(){
+        statements = new SqlStatementCounter(entityManagerFactory);
         employeeRepository.deleteAll();
         employee = Employee.builder()
                 .firstName("Firdaouss")
@@ -53,6 +67,7 @@ public class EmployeeControllerIT {
         // create employee instance (in setup)
 
         // when - action or the behaviour that we are going to test
+        statements.reset();
         ResultActions response = mockMvc.perform(post("/api/employees")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(employee)));
@@ -63,6 +78,8 @@ public class EmployeeControllerIT {
                 .andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(employee.getLastName())))
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
+        // a single INSERT, the id block comes from the pooled generator
+        statements.assertStatementCount(1);
 
     }
 
@@ -75,6 +92,7 @@ public class EmployeeControllerIT {
         employeeRepository.saveAll(List.of(employee));
 
         // when - action or the behaviour that we are going to test
+        statements.reset();
         ResultActions response = mockMvc.perform(get("/api/employees"));
 
         // then -verify the output
@@ -85,6 +103,52 @@ public class EmployeeControllerIT {
                 .andExpect(jsonPath("$[0].firstName", is(employee.getFirstName())))
                 .andExpect(jsonPath("$[0].lastName", is(employee.getLastName())))
                 .andExpect(jsonPath("$[0].email", is(employee.getEmail())));
+        // the ETag aggregate and the page; the aggregate comes from the query cache until the next write
+        statements.assertStatementCount(2);
+    }
+
+    // a row the database refuses although the service let it through (an email taken concurrently, equal in the
+    // column's collation only, or as here a missing name) fails the whole batch: it is rolled back and saved again
+    // one by one, the refused row is reported instead of a 500
+    @DisplayName("Integration test for CreateEmployees batch Rest API when the database refuses a row")
+    @Test
+    public void givenRowRefusedByDatabase_whenCreateEmployees_thenOthersSavedAndItRejected() throws Exception {
+        // given - precondition or setup
+        Employee other = Employee.builder().firstName("Saad").lastName("Benali").email("sbenali@example.com").build();
+        Employee refused = Employee.builder().lastName("Lotfi").email("nofirstname@example.com").build();
+
+        // when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(employee, other, refused))));
+
+        // then -verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved", is(2)))
+                .andExpect(jsonPath("$.rejected.size()", is(1)))
+                .andExpect(jsonPath("$.rejected[0].index", is(2)))
+                .andExpect(jsonPath("$.rejected[0].reason", is("Employee refused by the database")));
+        assertThat(employeeRepository.findAll()).extracting(Employee::getEmail)
+                .containsExactlyInAnyOrder(employee.getEmail(), other.getEmail());
+    }
+
+    // Integration test for GetEmployeeById Rest API
+    @DisplayName("Integration test for GetEmployeeById Rest API")
+    @Test
+    public void givenSavedEmployee_whenGetEmployeeById_thenReturnEmployeeWithoutQuery() throws Exception {
+        // given - precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee);
+
+        // when - action or the behaviour that we are going to test
+        statements.reset();
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId()));
+
+        // then -verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.email", is(employee.getEmail())));
+        // the saved entity is already in the second-level cache
+        statements.assertStatementCount(0);
     }
 
     // POSITIVE scenario
@@ -102,6 +166,7 @@ public class EmployeeControllerIT {
                 .build();
 
         // when - action or the behaviour that we are going to test
+        statements.reset();
         ResultActions response = mockMvc.perform(put("/api/employees/{id}", employee.getId())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(newEmployee)));
@@ -111,7 +176,79 @@ public class EmployeeControllerIT {
                 .andDo(print())
                 .andExpect(jsonPath("$.firstName", is(newEmployee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(newEmployee.getLastName())))
+                .andExpect(jsonPath("$.email", is(newEmployee.getEmail())))
+                .andExpect(header().string("ETag", "\"" + employee.getId() + "-1\""));
+        // a single UPDATE, no load before the merge, then the version it wrote for the ETag
+        statements.assertStatementCount(2);
+    }
+
+    // the bulk UPDATE bypasses the persistence context: what is read back afterwards must not be the cached old row
+    @DisplayName("Integration test for UpdateEmployee Rest API followed by GetEmployeeById")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenGetReturnsNewVersionAndETag() throws Exception {
+        // given - precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee);
+        long employeeId = savedEmployee.getId();
+        mockMvc.perform(get("/api/employees/{id}", employeeId))
+                .andExpect(header().string("ETag", "\"" + employeeId + "-0\""));
+        Employee newEmployee = Employee.builder()
+                .firstName("changed")
+                .lastName("Lchanged")
+                .email("Echanged.astekgroup.ma")
+                .build();
+
+        // when - action or the behaviour that we are going to test
+        statements.reset();
+        mockMvc.perform(put("/api/employees/{id}", employeeId)
+                        .header("If-Match", "\"" + employeeId + "-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newEmployee)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + employeeId + "-1\""));
+        // a conditional update knows its new version, the UPDATE is all it takes
+        statements.assertStatementCount(1);
+
+        // then -verify the output
+        mockMvc.perform(get("/api/employees/{id}", employeeId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + employeeId + "-1\""))
+                .andExpect(jsonPath("$.version", is(1)))
+                .andExpect(jsonPath("$.firstName", is(newEmployee.getFirstName())))
                 .andExpect(jsonPath("$.email", is(newEmployee.getEmail())));
+        mockMvc.perform(get("/api/employees/by-email").param("email", newEmployee.getEmail()))
+                .andExpect(jsonPath("$.version", is(1)));
+
+        // an unconditional update bumps the version too, its response and the next GET tell the new one
+        mockMvc.perform(put("/api/employees/{id}", employeeId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newEmployee)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + employeeId + "-2\""));
+        mockMvc.perform(get("/api/employees/{id}", employeeId))
+                .andExpect(header().string("ETag", "\"" + employeeId + "-2\""))
+                .andExpect(jsonPath("$.version", is(2)));
+    }
+
+    // a row written around Hibernate without a version starts at 0 and is versioned by the bulk UPDATE
+    @DisplayName("Integration test for UpdateEmployee Rest API on a row inserted without a version")
+    @Test
+    public void givenRowInsertedWithoutVersion_whenUpdateEmployee_thenVersionBumped() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1_000_000_002L;
+        jdbcTemplate.update("insert into employees (id, first_name, last_name, email) values (?, 'Nadia', 'Tazi', 'ntazi@example.com')",
+                employeeId);
+
+        // when - action or the behaviour that we are going to test
+        mockMvc.perform(put("/api/employees/{id}", employeeId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isOk());
+
+        // then -verify the output
+        mockMvc.perform(get("/api/employees/{id}", employeeId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + employeeId + "-1\""))
+                .andExpect(jsonPath("$.version", is(1)));
     }
 
     // NEGATIVE scenario
@@ -130,6 +267,7 @@ public class EmployeeControllerIT {
 
 
         // when - action or the behaviour that we are going to test
+        statements.reset();
         ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(newEmployee)));
@@ -137,6 +275,7 @@ public class EmployeeControllerIT {
         // then -verify the output
         response.andExpect(status().isNotFound())
                 .andDo(print());
+        statements.assertStatementCount(1);
     }
 
     // POSITIVE scenario
@@ -148,11 +287,14 @@ public class EmployeeControllerIT {
         Employee savedEmployee = employeeRepository.save(employee);
 
         // when - action or the behaviour that we are going to test
+        statements.reset();
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", savedEmployee.getId()));
 
         // then -verify the output
         response.andExpect(status().isOk())
                 .andDo(print());
+        // a single DELETE, no lookup first
+        statements.assertStatementCount(1);
     }
 
     // NEGATIVE scenario
@@ -164,11 +306,13 @@ public class EmployeeControllerIT {
         long employeeId = 1L;
 
         // when - action or the behaviour that we are going to test
+        statements.reset();
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
 
         // then -verify the output
         response.andExpect(status().isNotFound())
                 .andDo(print());
+        statements.assertStatementCount(1);
     }
 
 }
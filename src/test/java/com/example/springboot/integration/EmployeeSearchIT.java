@@ -0,0 +1,139 @@
+package com.example.springboot.integration;
+
+import com.example.springboot.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeeSearchIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SqlStatementCounter statements;
+
+    @BeforeEach
+    void setup() throws Exception {
+        statements = new SqlStatementCounter(entityManagerFactory);
+        // every tenant's rows, deleted behind Hibernate Search's back: the rebuild empties the index too
+        jdbcTemplate.update("delete from employees");
+        mockMvc.perform(post("/actuator/searchindex")).andExpect(status().isOk());
+        create("Firdaouss", "Lotfi", "flotfi@astekgroup.ma");
+        create("Saad", "Benali", "sbenali@example.com");
+    }
+
+    private long create(String firstName, String lastName, String email) throws Exception {
+        Employee employee = Employee.builder().firstName(firstName).lastName(lastName).email(email).build();
+        String body = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private ResultActions search(String query) throws Exception {
+        return mockMvc.perform(get("/api/employees/search").param("q", query));
+    }
+
+    @DisplayName("Integration test for full-text search: whole words, prefixes, typos and email parts")
+    @Test
+    public void givenEmployees_whenSearch_thenMatchesWordsPrefixesAndTypos() throws Exception {
+        // when / then - answered from the index, not a single SQL statement
+        statements.reset();
+        search("lotfi").andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].email", is("flotfi@astekgroup.ma")));
+        statements.assertStatementCount(0);
+
+        search("firda").andExpect(jsonPath("$[0].lastName", is("Lotfi")));
+        search("Fírdaous Lotfy").andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].firstName", is("Firdaouss")));
+        search("astekgroup").andExpect(jsonPath("$[0].lastName", is("Lotfi")));
+        search("example.com").andExpect(jsonPath("$[0].lastName", is("Benali")));
+        // every word has to match
+        search("saad lotfi").andExpect(jsonPath("$.size()", is(0)));
+        search("   ").andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Integration test for full-text search: paged, the next page is advertised")
+    @Test
+    public void givenManyMatches_whenSearchPage_thenHasNextHeader() throws Exception {
+        create("Firdaouss", "Lotfi", "flotfi2@astekgroup.ma");
+        create("Firdaouss", "Lotfi", "flotfi3@astekgroup.ma");
+
+        mockMvc.perform(get("/api/employees/search").param("q", "astekgroup").param("size", "2"))
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(header().string("X-Has-Next", "true"));
+        mockMvc.perform(get("/api/employees/search").param("q", "astekgroup").param("size", "2").param("page", "1"))
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(header().string("X-Has-Next", "false"));
+    }
+
+    @DisplayName("Integration test for full-text search: updates and deletes are searchable once they return")
+    @Test
+    public void givenUpdatedAndDeletedEmployees_whenSearch_thenIndexFollows() throws Exception {
+        // given
+        long id = create("Karim", "Haddad", "khaddad@example.com");
+
+        // when - a bulk UPDATE and DELETE, which Hibernate Search does not see by itself
+        Employee renamed = Employee.builder().firstName("Karim").lastName("Alaoui").email("kalaoui@example.com").build();
+        mockMvc.perform(put("/api/employees/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(renamed)))
+                .andExpect(status().isOk());
+
+        // then
+        search("haddad").andExpect(jsonPath("$.size()", is(0)));
+        search("alaoui").andExpect(jsonPath("$[0].id").value(id))
+                .andExpect(jsonPath("$[0].email", is("kalaoui@example.com")));
+
+        mockMvc.perform(delete("/api/employees/{id}", id)).andExpect(status().isOk());
+        search("alaoui").andExpect(jsonPath("$.size()", is(0)));
+    }
+
+    @DisplayName("Integration test for the search index rebuild")
+    @Test
+    public void givenRowsWrittenAroundHibernate_whenRebuild_thenSearchable() throws Exception {
+        // given - inserted behind the application's back, the index never heard of it
+        jdbcTemplate.update("insert into employees (id, first_name, last_name, email, tenant_id, version)"
+                + " values (?, 'Nadia', 'Tazi', 'ntazi@example.com', ?, 0)", 1_000_000_001L, Employee.DEFAULT_TENANT);
+        search("tazi").andExpect(jsonPath("$.size()", is(0)));
+
+        // when
+        mockMvc.perform(post("/actuator/searchindex"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.indexed").value(3));
+
+        // then
+        search("tazi").andExpect(jsonPath("$[0].id").value(1_000_000_001L));
+        search("lotfi").andExpect(jsonPath("$.size()", is(1)));
+    }
+}
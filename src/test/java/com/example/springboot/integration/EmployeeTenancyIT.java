@@ -0,0 +1,138 @@
+package com.example.springboot.integration;
+
+import com.example.springboot.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// two tenants on one deployment: each sees, changes and caches only its own employees
+@SpringBootTest(properties = "app.tenancy.enabled=true")
+@AutoConfigureMockMvc
+public class EmployeeTenancyIT {
+
+    private static final String TENANT_HEADER = "X-Tenant-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setup() throws Exception {
+        // every tenant's rows: the repository only sees the default tenant's
+        jdbcTemplate.update("delete from employees");
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        // deleted behind Hibernate Search's back, the rebuild empties the search index too
+        mockMvc.perform(post("/actuator/searchindex")).andExpect(status().isOk());
+        employee = Employee.builder()
+                .firstName("Firdaouss")
+                .lastName("Lotfi")
+                .email("flotfi.astekgroup.ma")
+                .build();
+    }
+
+    private ResultActions create(String tenant, Employee employee) throws Exception {
+        return mockMvc.perform(post("/api/employees")
+                .header(TENANT_HEADER, tenant)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+    }
+
+    private long createdId(String tenant, Employee employee) throws Exception {
+        String body = create(tenant, employee).andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    @DisplayName("Integration test for tenancy: a request without a tenant is refused")
+    @Test
+    public void givenNoTenantHeader_whenGetEmployees_thenBadRequest() throws Exception {
+        mockMvc.perform(get("/api/employees")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employees").header(TENANT_HEADER, "acme;drop")).andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Integration test for tenancy: an email is unique per tenant, lists only show the tenant's employees")
+    @Test
+    public void givenSameEmailInTwoTenants_whenListed_thenEachSeesItsOwn() throws Exception {
+        // given
+        long acmeId = createdId("acme-it", employee);
+        long globexId = createdId("globex-it", employee);
+
+        // when / then
+        mockMvc.perform(get("/api/employees").header(TENANT_HEADER, "acme-it"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", TENANT_HEADER))
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].id").value(acmeId))
+                .andExpect(jsonPath("$[0].tenantId").doesNotExist());
+        mockMvc.perform(get("/api/employees/by-email").param("email", employee.getEmail()).header(TENANT_HEADER, "globex-it"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(globexId));
+        mockMvc.perform(get("/api/employees/search").param("q", "lotfi").header(TENANT_HEADER, "acme-it"))
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].id").value(acmeId));
+        // streamed on an async thread, which runs as the request's tenant
+        MvcResult export = mockMvc.perform(get("/api/employees/export").header(TENANT_HEADER, "globex-it"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"id\":" + globexId + ",")))
+                .andExpect(content().string(not(containsString("\"id\":" + acmeId + ","))));
+    }
+
+    @DisplayName("Integration test for tenancy: another tenant's employee is not found, changed or deleted")
+    @Test
+    public void givenOtherTenantsEmployee_whenGetUpdateDelete_thenNotFound() throws Exception {
+        // given - cached for its own tenant first
+        long acmeId = createdId("acme-it", Employee.builder().firstName("Saad").lastName("Lotfi").email("saad.astekgroup.ma").build());
+        mockMvc.perform(get("/api/employees/{id}", acmeId).header(TENANT_HEADER, "acme-it")).andExpect(status().isOk());
+
+        // when / then
+        mockMvc.perform(get("/api/employees/{id}", acmeId).header(TENANT_HEADER, "globex-it"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/api/employees/{id}", acmeId).header(TENANT_HEADER, "globex-it")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isNotFound());
+        // a stale If-Match would be 412 for the owner, another tenant must not learn that the id exists
+        mockMvc.perform(put("/api/employees/{id}", acmeId).header(TENANT_HEADER, "globex-it")
+                        .header("If-Match", "\"" + acmeId + "-99\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/employees/{id}", acmeId).header(TENANT_HEADER, "globex-it"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/employees/{id}", acmeId).header(TENANT_HEADER, "acme-it"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Saad")));
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.springboot.integration;
+
+import com.example.springboot.config.ShardRoutingDataSource;
+import com.example.springboot.config.Shards;
+import com.example.springboot.exception.ResourceNotFoundException;
+import com.example.springboot.model.Employee;
+import com.example.springboot.model.EmployeeBatchResult;
+import com.example.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// three databases of the test container as three shards, each migrated by Flyway on startup
+@SpringBootTest
+public class ShardedEmployeeServiceIT extends AbstractContainerBaseTest {
+
+    private static final int SHARDS = 3;
+
+    @DynamicPropertySource
+    public static void shardProperties(DynamicPropertyRegistry registry) throws SQLException {
+        List<String> urls = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(MY_SQL_CONTAINER.getJdbcUrl(),
+                MY_SQL_CONTAINER.getUsername(), MY_SQL_CONTAINER.getPassword());
+             Statement statement = connection.createStatement()) {
+            for (int shard = 0; shard < SHARDS; shard++) {
+                statement.execute("create database if not exists ems_shard_" + shard);
+                urls.add(MY_SQL_CONTAINER.getJdbcUrl().replace("/ems", "/ems_shard_" + shard));
+            }
+        }
+        registry.add("app.datasource.shards.enabled", () -> "true");
+        registry.add("app.datasource.shards.urls", () -> String.join(",", urls));
+        registry.add("app.datasource.shards.username", MY_SQL_CONTAINER::getUsername);
+        registry.add("app.datasource.shards.password", MY_SQL_CONTAINER::getPassword);
+    }
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private Shards shards;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setup() {
+        shards.dataSources().forEach(shard -> new JdbcTemplate(shard).update("delete from employees"));
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private static Employee employee(int n) {
+        return Employee.builder().firstName("Firdaouss").lastName("Lotfi" + n).email("flotfi" + n + "@astekgroup.ma").build();
+    }
+
+    private static int rows(DataSource shard) {
+        return new JdbcTemplate(shard).queryForObject("select count(*) from employees", Integer.class);
+    }
+
+    @DisplayName("Integration test for sharding: new employees are spread over every shard and found by id")
+    @Test
+    public void givenNewEmployees_whenSaved_thenSpreadOverShardsAndFoundById() {
+        // when
+        List<Employee> saved = IntStream.range(0, 9).mapToObj(n -> employeeService.saveEmployee(employee(n)))
+                .collect(Collectors.toList());
+
+        // then - round robin over the global sequence, each row on the shard its id names
+        shards.dataSources().forEach(shard -> assertThat(rows(shard)).isEqualTo(3));
+        for (Employee employee : saved) {
+            DataSource shard = shards.dataSources().get(ShardRoutingDataSource.shardOf(employee.getId()));
+            assertThat(new JdbcTemplate(shard).queryForObject("select email from employees where id = ?",
+                    String.class, employee.getId())).isEqualTo(employee.getEmail());
+            assertThat(employeeService.getEmployeeById(employee.getId())).map(Employee::getEmail).contains(employee.getEmail());
+        }
+    }
+
+    @DisplayName("Integration test for sharding: pages and keyset pages are merged across shards in id order")
+    @Test
+    public void givenEmployeesOnEveryShard_whenListed_thenMergedInIdOrder() {
+        // given
+        EmployeeBatchResult result = employeeService.saveEmployees(IntStream.range(0, 10).mapToObj(ShardedEmployeeServiceIT::employee)
+                .collect(Collectors.toList()));
+        List<Long> ids = employeeService.getAllEmployees().stream().map(Employee::getId).collect(Collectors.toList());
+
+        // when
+        Slice<Employee> second = employeeService.getEmployees(1, 4);
+        List<Employee> after = employeeService.getEmployeesAfter(ids.get(3), 4);
+
+        // then
+        assertThat(result.getSaved()).isEqualTo(10);
+        assertThat(ids).hasSize(10).isSorted();
+        assertThat(second.getContent()).extracting(Employee::getId).containsExactlyElementsOf(ids.subList(4, 8));
+        assertThat(second.hasNext()).isTrue();
+        assertThat(after).extracting(Employee::getId).containsExactlyElementsOf(ids.subList(4, 8));
+    }
+
+    @DisplayName("Integration test for sharding: an email is unique across shards, updates and deletes reach the right shard")
+    @Test
+    public void givenSavedEmployee_whenDuplicatedUpdatedAndDeleted_thenHandledOnItsShard() {
+        // given
+        Employee saved = employeeService.saveEmployee(employee(1));
+
+        // when / then
+        assertThatThrownBy(() -> employeeService.saveEmployee(employee(1))).isInstanceOf(ResourceNotFoundException.class);
+        EmployeeBatchResult batch = employeeService.saveEmployees(List.of(employee(1), employee(2)));
+        assertThat(batch.getRejected()).extracting(EmployeeBatchResult.Rejection::getIndex).containsExactly(0);
+
+        Employee changes = employee(1);
+        changes.setFirstName("Firdaws");
+        Optional<Employee> updated = employeeService.updateEmployee(saved.getId(), changes, null);
+        assertThat(updated).map(Employee::getFirstName).contains("Firdaws");
+        assertThat(employeeService.getEmployeeByEmail(saved.getEmail())).map(Employee::getId).contains(saved.getId());
+
+        assertThat(employeeService.deleteEmployee(saved.getId())).isTrue();
+        assertThat(employeeService.getEmployeeById(saved.getId())).isEmpty();
+        assertThat(shards.dataSources().stream().mapToInt(ShardedEmployeeServiceIT::rows).sum()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.springboot.integration;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Counts the JDBC statements Hibernate prepares between reset() and assertStatementCount(), from the
+// Statistics enabled by app.hibernate.statistics.enabled. The counters are global to the SessionFactory,
+// so only use it around work done on the test thread (MockMvc requests, repository calls).
+public class SqlStatementCounter {
+
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertThat(statistics.isStatisticsEnabled())
+                .as("hibernate.generate_statistics (app.hibernate.statistics.enabled) must be on")
+                .isTrue();
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    public long statementCount() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    // the failure message lists the HQL/SQL queries that ran, entity inserts/updates/deletes are counted separately
+    public void assertStatementCount(long expected) {
+        assertThat(statementCount())
+                .as("JDBC statements, queries run: %s, entities inserted/updated/deleted/fetched: %d/%d/%d/%d",
+                        queries(), statistics.getEntityInsertCount(), statistics.getEntityUpdateCount(),
+                        statistics.getEntityDeleteCount(), statistics.getEntityFetchCount())
+                .isEqualTo(expected);
+    }
+
+    private String queries() {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> statistics.getQueryStatistics(query).getExecutionCount() + "x " + query)
+                .collect(Collectors.joining("; ", "[", "]"));
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.springboot.repository;
 
 import com.example.springboot.integration.AbstractContainerBaseTest;
+import com.example.springboot.integration.SqlStatementCounter;
 import com.example.springboot.model.Employee;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,7 +9,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,10 +25,19 @@ public class EmployeeRepositoryIT extends AbstractContainerBaseTest {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SqlStatementCounter statements;
+
     private Employee employee;
 
     @BeforeEach
     public void setup(){
+        statements = new SqlStatementCounter(entityManagerFactory);
         employee = Employee.builder()
                 .firstName("Firdaouss")
                 .lastName("Lotfi")
@@ -178,10 +191,10 @@ public class EmployeeRepositoryIT extends AbstractContainerBaseTest {
         String lastName = "Lotfi";
 
         // when - action or the behaviour that we are going to test
-        Employee foundEmployee = employeeRepository.findByJPQL(firstName, lastName);
+        List<Employee> foundEmployees = employeeRepository.findByJPQL(firstName, lastName);
 
         // then -verify the output
-        assertThat(foundEmployee).isNotNull();
+        assertThat(foundEmployees).containsExactly(employee);
     }
 
     // JUnit test for custom query using JPQL with NAMES
@@ -198,10 +211,10 @@ public class EmployeeRepositoryIT extends AbstractContainerBaseTest {
         String lastName = "Lotfi";
 
         // when - action or the behaviour that we are going to test
-        Employee foundEmployee = employeeRepository.findByJPQLNamedParams(firstName, lastName);
+        List<Employee> foundEmployees = employeeRepository.findByJPQLNamedParams(firstName, lastName);
 
         // then -verify the output
-        assertThat(foundEmployee).isNotNull();
+        assertThat(foundEmployees).containsExactly(employee);
     }
 
     // JUnit test for custom query using native SQL with index
@@ -217,10 +230,10 @@ public class EmployeeRepositoryIT extends AbstractContainerBaseTest {
         employeeRepository.save(employee);
 
         // when - action or the behaviour that we are going to test
-        Employee savedEmployee = employeeRepository.findByNativeSQL(employee.getFirstName(), employee.getLastName());
+        List<Employee> savedEmployees = employeeRepository.findByNativeSQL(employee.getFirstName(), employee.getLastName());
 
         // then -verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).containsExactly(employee);
     }
 
     // JUnit test for custom query using native SQL with named params
@@ -236,11 +249,113 @@ public class EmployeeRepositoryIT extends AbstractContainerBaseTest {
         employeeRepository.save(employee);
 
         // when - action or the behaviour that we are going to test
-        Employee savedEmployee = employeeRepository.findByNativeSQLNamedParams(employee.getFirstName(), employee.getLastName());
+        List<Employee> savedEmployees = employeeRepository.findByNativeSQLNamedParams(employee.getFirstName(), employee.getLastName());
 
         // then -verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).containsExactly(employee);
+    }
+
+    // JUnit test checking that the name search is served by the (last_name, first_name) index
+    @DisplayName("JUnit test for name search index usage (EXPLAIN)")
+    @Test
+    public void givenEmployeesList_whenExplainNameSearch_thenUseNameIndex() {
+        // given - precondition or setup
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + (i % 40))
+                    .email("employee" + i + ".groupastek.ma")
+                    .build());
+        }
+        employeeRepository.saveAll(employees);
+        entityManager.flush();
+
+        // when - action or the behaviour that we are going to test
+        List<?> plan = entityManager.getEntityManager()
+                .createNativeQuery("explain select * from employees e where e.tenant_id = 'default' and e.last_name like 'Last1%' and e.first_name like 'First1%'")
+                .getResultList();
+
+        // then -verify the output
+        Object[] row = (Object[]) plan.get(0);
+        // MySQL EXPLAIN columns: id, select_type, table, partitions, type, possible_keys, key, ...
+        assertThat(row[6]).isEqualTo(Employee.NAME_INDEX);
+    }
+
+    // statement counts: the test transaction is never committed, so nothing here is served by the second-level cache
+
+    // JUnit test for batched inserts
+    @DisplayName("JUnit test for the statement count of saveAll")
+    @Test
+    public void givenEmployeesList_whenSaveAllAndFlush_thenOneBatchedInsert() {
+        // given - precondition or setup
+        List<Employee> employees = List.of(
+                Employee.builder().firstName("Firdaouss").lastName("Lotfi").email("flotfi.groupastek.ma").build(),
+                Employee.builder().firstName("Saad").lastName("Lotfi").email("Saad.groupastek.ma").build(),
+                Employee.builder().firstName("Fadel").lastName("Lotfi").email("Fadel.groupastek.ma").build());
+
+        // when - action or the behaviour that we are going to test
+        statements.reset();
+        employeeRepository.saveAll(employees);
+        entityManager.flush();
+
+        // then -verify the output
+        // one prepared INSERT executed as a JDBC batch, and no id lookups (pooled generator)
+        statements.assertStatementCount(1);
     }
 
+    // JUnit test for the single-statement update and delete used by the REST API
+    @DisplayName("JUnit test for the statement count of updateById and deleteEmployeeById")
+    @Test
+    public void givenEmployeeObject_whenUpdateByIdAndDeleteEmployeeById_thenOneStatementEach() {
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+
+        // when - action or the behaviour that we are going to test
+        statements.reset();
+        int updatedRows = employeeRepository.updateById(employee.getId(), "fchanged", "lchanged", "e-changed");
+
+        // then -verify the output
+        assertThat(updatedRows).isEqualTo(1);
+        statements.assertStatementCount(1);
+
+        // when - action or the behaviour that we are going to test
+        statements.reset();
+        int deletedRows = employeeRepository.deleteEmployeeById(employee.getId());
+
+        // then -verify the output
+        assertThat(deletedRows).isEqualTo(1);
+        statements.assertStatementCount(1);
+    }
+
+    // JUnit test for findAll
+    @DisplayName("JUnit test for the statement count of findAll")
+    @Test
+    public void givenEmployeesList_whenFindAll_thenOneSelect() {
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        entityManager.clear();
+
+        // when - action or the behaviour that we are going to test
+        statements.reset();
+        List<Employee> employees = employeeRepository.findAll();
+
+        // then -verify the output
+        assertThat(employees).hasSize(1);
+        statements.assertStatementCount(1);
+    }
+
+    // JUnit test checking that the container schema comes from the Flyway migrations, not from Hibernate
+    @DisplayName("JUnit test for the migrated schema")
+    @Test
+    public void givenContainerDatabase_whenReadMigrationHistory_thenAllMigrationsApplied() {
+        // when - action or the behaviour that we are going to test
+        List<Object> versions = entityManager.getEntityManager()
+                .createNativeQuery("select version from flyway_schema_history where success = 1 order by installed_rank")
+                .getResultList();
+
+        // then -verify the output
+        assertThat(versions).containsExactly("1", "2", "3", "4", "5");
+    }
 
 }
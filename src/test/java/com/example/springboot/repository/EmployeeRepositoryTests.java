@@ -8,6 +8,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
@@ -77,6 +80,47 @@ public class EmployeeRepositoryTests {
         assertThat(employees).contains(employee2);
     }
 
+    // JUnit test for keyset pagination operation
+    @DisplayName("JUnit test for keyset pagination operation")
+    @Test
+    public void givenEmployeesList_whenFindByIdGreaterThan_thenReturnNextKeysetPage() {
+        // given - precondition or setup
+        Employee employee1 = employeeRepository.save(Employee.builder()
+                .firstName("Firdaouss").lastName("Lotfi").email("flotfi.groupastek.ma").build());
+        Employee employee2 = employeeRepository.save(Employee.builder()
+                .firstName("Saad").lastName("Lotfi").email("Saad.groupastek.ma").build());
+        Employee employee3 = employeeRepository.save(Employee.builder()
+                .firstName("Hind").lastName("Lotfi").email("Hind.groupastek.ma").build());
+
+        // when - action or the behaviour that we are going to test
+        List<Employee> employees = employeeRepository.findByIdGreaterThanOrderByIdAsc(employee1.getId(), PageRequest.of(0, 1));
+
+        // then -verify the output
+        assertThat(employees).containsExactly(employee2);
+        assertThat(employees).doesNotContain(employee3);
+    }
+
+    // JUnit test for prefix name search operation
+    @DisplayName("JUnit test for prefix name search operation")
+    @Test
+    public void givenEmployeesWithSameName_whenSearchByNamePrefix_thenReturnAllMatches() {
+        // given - precondition or setup
+        Employee employee1 = employeeRepository.save(Employee.builder()
+                .firstName("Firdaouss").lastName("Lotfi").email("flotfi.groupastek.ma").build());
+        Employee employee2 = employeeRepository.save(Employee.builder()
+                .firstName("Firdaouss").lastName("Lotfi").email("flotfi2.groupastek.ma").build());
+        employeeRepository.save(Employee.builder()
+                .firstName("Saad").lastName("Lotfi").email("Saad.groupastek.ma").build());
+
+        // when - action or the behaviour that we are going to test
+        Slice<Employee> employees = employeeRepository.findByLastNameStartingWithAndFirstNameStartingWith(
+                "Lot", "Fir", PageRequest.of(0, 10, Sort.by("lastName", "firstName", "id")));
+
+        // then -verify the output
+        assertThat(employees.getContent()).containsExactly(employee1, employee2);
+        assertThat(employees.hasNext()).isFalse();
+    }
+
     // JUnit test for get employee by id operation
     @Test
     public void givenEmployeeObject_whenFindById_thenReturnEmployee() {
@@ -175,10 +219,10 @@ public class EmployeeRepositoryTests {
         String lastName = "Lotfi";
 
         // when - action or the behaviour that we are going to test
-        Employee foundEmployee = employeeRepository.findByJPQL(firstName, lastName);
+        List<Employee> foundEmployees = employeeRepository.findByJPQL(firstName, lastName);
 
         // then -verify the output
-        assertThat(foundEmployee).isNotNull();
+        assertThat(foundEmployees).containsExactly(employee);
     }
 
     // JUnit test for custom query using JPQL with NAMES
@@ -195,10 +239,10 @@ public class EmployeeRepositoryTests {
         String lastName = "Lotfi";
 
         // when - action or the behaviour that we are going to test
-        Employee foundEmployee = employeeRepository.findByJPQLNamedParams(firstName, lastName);
+        List<Employee> foundEmployees = employeeRepository.findByJPQLNamedParams(firstName, lastName);
 
         // then -verify the output
-        assertThat(foundEmployee).isNotNull();
+        assertThat(foundEmployees).containsExactly(employee);
     }
 
     // JUnit test for custom query using native SQL with index
@@ -214,10 +258,10 @@ public class EmployeeRepositoryTests {
         employeeRepository.save(employee);
 
         // when - action or the behaviour that we are going to test
-        Employee savedEmployee = employeeRepository.findByNativeSQL(employee.getFirstName(), employee.getLastName());
+        List<Employee> savedEmployees = employeeRepository.findByNativeSQL(employee.getFirstName(), employee.getLastName());
 
         // then -verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).containsExactly(employee);
     }
 
     // JUnit test for custom query using native SQL with named params
@@ -233,11 +277,49 @@ public class EmployeeRepositoryTests {
         employeeRepository.save(employee);
 
         // when - action or the behaviour that we are going to test
-        Employee savedEmployee = employeeRepository.findByNativeSQLNamedParams(employee.getFirstName(), employee.getLastName());
+        List<Employee> savedEmployees = employeeRepository.findByNativeSQLNamedParams(employee.getFirstName(), employee.getLastName());
 
         // then -verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).containsExactly(employee);
     }
 
+    // JUnit test for single-statement update operation
+    @DisplayName("JUnit test for single-statement update operation")
+    @Test
+    public void givenEmployeeObject_whenUpdateById_thenUpdateRowAndBumpVersion() {
+        // given - precondition or setup
+        employeeRepository.save(employee);
+        long version = employeeRepository.findById(employee.getId()).get().getVersion();
+
+        // when - action or the behaviour that we are going to test
+        int updatedRows = employeeRepository.updateById(employee.getId(), "fchanged", "lchanged", "e-changed");
+        int staleRows = employeeRepository.updateByIdAndVersion(employee.getId(), version, "x", "y", "z");
+        int missingRows = employeeRepository.updateById(employee.getId() + 1000, "fchanged", "lchanged", "other");
+
+        // then -verify the output
+        Employee updatedEmployee = employeeRepository.findById(employee.getId()).get();
+        assertThat(updatedRows).isEqualTo(1);
+        assertThat(staleRows).isZero();
+        assertThat(missingRows).isZero();
+        assertThat(updatedEmployee.getFirstName()).isEqualTo("fchanged");
+        assertThat(updatedEmployee.getVersion()).isEqualTo(version + 1);
+    }
+
+    // JUnit test for single-statement delete operation
+    @DisplayName("JUnit test for single-statement delete operation")
+    @Test
+    public void givenEmployeeObject_whenDeleteEmployeeById_thenReturnAffectedRows() {
+        // given - precondition or setup
+        employeeRepository.save(employee);
+
+        // when - action or the behaviour that we are going to test
+        int deletedRows = employeeRepository.deleteEmployeeById(employee.getId());
+        int missingRows = employeeRepository.deleteEmployeeById(employee.getId());
+
+        // then -verify the output
+        assertThat(deletedRows).isEqualTo(1);
+        assertThat(missingRows).isZero();
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+    }
 
 }
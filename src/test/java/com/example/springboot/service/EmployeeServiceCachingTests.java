@@ -0,0 +1,206 @@
+package com.example.springboot.service;
+
+import com.example.springboot.config.CacheConfig;
+import com.example.springboot.config.TenantContext;
+import com.example.springboot.model.Employee;
+import com.example.springboot.repository.EmployeeRepository;
+import com.example.springboot.service.impl.EmployeeServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.persistence.EntityManager;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+// checks the cache annotations on EmployeeServiceImpl through a real Spring cache proxy
+@SpringJUnitConfig
+public class EmployeeServiceCachingTests {
+
+    @Configuration
+    @Import(CacheConfig.class)
+    static class CachingTestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.EMPLOYEE_BY_ID, CacheConfig.EMPLOYEE_BY_EMAIL);
+        }
+
+        @Bean
+        EmployeeService employeeService(EmployeeRepository employeeRepository, EntityManager entityManager,
+                                        CacheManager cacheManager) {
+            return new EmployeeServiceImpl(employeeRepository, entityManager, cacheManager,
+                    TransactionOperations.withoutTransaction(), new SimpleMeterRegistry());
+        }
+    }
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup(){
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Firdaouss")
+                .lastName("Lotfi")
+                .email("flotfi.astekgroup.ma")
+                .build();
+    }
+
+    // JUnit test for cached getEmployeeById
+    @DisplayName("JUnit test for cached getEmployeeById")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeByIdTwice_thenRepositoryHitOnce() {
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        // when - action or the behaviour that we are going to test
+        employeeService.getEmployeeById(1L);
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(1L);
+
+        // then -verify the output
+        assertThat(cachedEmployee).contains(employee);
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+    // NEGATIVE scenario - misses are not cached
+    @DisplayName("JUnit test for cached getEmployeeById -- NEGATIVE SCENARIO")
+    @Test
+    public void givenMissingEmployee_whenGetEmployeeByIdTwice_thenMissIsNotCached() {
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.empty(), Optional.of(employee));
+
+        // when - action or the behaviour that we are going to test
+        Optional<Employee> missingEmployee = employeeService.getEmployeeById(1L);
+        Optional<Employee> createdEmployee = employeeService.getEmployeeById(1L);
+
+        // then -verify the output
+        assertThat(missingEmployee).isEmpty();
+        assertThat(createdEmployee).contains(employee);
+    }
+
+    // JUnit test for cache eviction on updateEmployee
+    @DisplayName("JUnit test for cache eviction on updateEmployee")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenCachesEvicted() {
+        // given - precondition or setup
+        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee), Optional.empty());
+        employeeService.getEmployeeByEmail(employee.getEmail());
+        Employee changedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("changed")
+                .lastName("Lotfi")
+                .email("changed.astekgroup.ma")
+                .build();
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(changedEmployee));
+        // served from the entry the email lookup left in the id cache
+        assertThat(employeeService.getEmployeeById(1L)).contains(employee);
+        given(employeeRepository.updateById(1L, "changed", "Lotfi", "changed.astekgroup.ma")).willReturn(1);
+
+        // when - action or the behaviour that we are going to test
+        employeeService.updateEmployee(1L, changedEmployee, null);
+
+        // then -verify the output
+        assertThat(employeeService.getEmployeeByEmail(employee.getEmail())).isEmpty();
+        assertThat(employeeService.getEmployeeById(1L)).contains(changedEmployee);
+        verify(employeeRepository, times(2)).findByEmail(employee.getEmail());
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+    // JUnit test for cache eviction on deleteEmployee
+    @DisplayName("JUnit test for cache eviction on deleteEmployee")
+    @Test
+    public void givenCachedEmployee_whenDeleteEmployee_thenEvicted() {
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee), Optional.empty());
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(1);
+        employeeService.getEmployeeById(1L);
+
+        // when - action or the behaviour that we are going to test
+        employeeService.deleteEmployee(1L);
+
+        // then -verify the output
+        assertThat(employeeService.getEmployeeById(1L)).isEmpty();
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    // JUnit test for cache eviction on updateEmployee inside a transaction: the entry goes only once it commits
+    @DisplayName("JUnit test for cache eviction on updateEmployee (deferred to the commit)")
+    @Test
+    public void givenTransaction_whenUpdateEmployee_thenEvictedAfterCommit() {
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        employeeService.getEmployeeById(1L);
+        given(employeeRepository.updateById(1L, "changed", "Lotfi", "changed.astekgroup.ma")).willReturn(1);
+        Employee changedEmployee = Employee.builder()
+                .firstName("changed")
+                .lastName("Lotfi")
+                .email("changed.astekgroup.ma")
+                .build();
+        Cache byId = cacheManager.getCache(CacheConfig.EMPLOYEE_BY_ID);
+
+        // when - action or the behaviour that we are going to test
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            employeeService.updateEmployee(1L, changedEmployee, null);
+
+            // then -verify the output
+            assertThat(byId.get(TenantContext.cacheKey(1L))).isNotNull();
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(byId.get(TenantContext.cacheKey(1L))).isNull();
+    }
+
+    // JUnit test for cache eviction on updateEmployee: another tenant's employee with the same email stays cached
+    @DisplayName("JUnit test for cache eviction on updateEmployee (other tenants keep their entries)")
+    @Test
+    public void givenSameEmailInTwoTenants_whenUpdateEmployee_thenOnlyOwnTenantEvicted() {
+        // given - precondition or setup
+        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+        TenantContext.callAs("acme", () -> employeeService.getEmployeeByEmail(employee.getEmail()));
+        TenantContext.callAs("globex", () -> employeeService.getEmployeeByEmail(employee.getEmail()));
+        given(employeeRepository.updateById(1L, "changed", "Lotfi", "changed.astekgroup.ma")).willReturn(1);
+        Employee changedEmployee = Employee.builder()
+                .firstName("changed")
+                .lastName("Lotfi")
+                .email("changed.astekgroup.ma")
+                .build();
+
+        // when - action or the behaviour that we are going to test
+        TenantContext.callAs("acme", () -> employeeService.updateEmployee(1L, changedEmployee, null));
+
+        // then -verify the output
+        TenantContext.callAs("acme", () -> employeeService.getEmployeeByEmail(employee.getEmail()));
+        TenantContext.callAs("globex", () -> employeeService.getEmployeeByEmail(employee.getEmail()));
+        verify(employeeRepository, times(3)).findByEmail(employee.getEmail());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.springboot.service;
+
+import com.example.springboot.config.MetricsConfig;
+import com.example.springboot.model.Employee;
+import com.example.springboot.repository.EmployeeRepository;
+import com.example.springboot.service.impl.EmployeeServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.persistence.EntityManager;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+// checks the @Timed service timers through a real TimedAspect proxy
+@SpringJUnitConfig
+public class EmployeeServiceMetricsTests {
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @Import(MetricsConfig.class)
+    static class MetricsTestConfig {
+        @Bean
+        PrometheusMeterRegistry meterRegistry() {
+            return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        }
+
+        @Bean
+        EmployeeService employeeService(EmployeeRepository employeeRepository, EntityManager entityManager,
+                                        MeterRegistry meterRegistry) {
+            return new EmployeeServiceImpl(employeeRepository, entityManager, new NoOpCacheManager(),
+                    TransactionOperations.withoutTransaction(), meterRegistry);
+        }
+    }
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private PrometheusMeterRegistry meterRegistry;
+
+    // JUnit test for the per-method service timer
+    @DisplayName("JUnit test for EmployeeService method timers")
+    @Test
+    public void givenServiceCalls_whenReadTimers_thenOneTimerPerMethodWithHistogram(){
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(Employee.builder().id(1L).build()));
+
+        // when - action or the behaviour that we are going to test
+        employeeService.getEmployeeById(1L);
+        employeeService.getEmployeeById(1L);
+        employeeService.deleteEmployee(1L);
+
+        // then - verify the output
+        Timer byId = meterRegistry.find(MetricsConfig.SERVICE_TIMER).tag("method", "getEmployeeById").timer();
+        Timer delete = meterRegistry.find(MetricsConfig.SERVICE_TIMER).tag("method", "deleteEmployee").timer();
+        assertThat(byId).isNotNull();
+        assertThat(byId.count()).isEqualTo(2);
+        assertThat(delete.count()).isEqualTo(1);
+        // histogram = true publishes buckets for Prometheus
+        assertThat(meterRegistry.scrape()).contains("employee_service_seconds_bucket{");
+    }
+}
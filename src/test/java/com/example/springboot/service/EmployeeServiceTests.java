@@ -1,7 +1,9 @@
 package com.example.springboot.service;
 
+import com.example.springboot.config.TenantContext;
 import com.example.springboot.exception.ResourceNotFoundException;
 import com.example.springboot.model.Employee;
+import com.example.springboot.model.EmployeeBatchResult;
 import com.example.springboot.repository.EmployeeRepository;
 import com.example.springboot.service.impl.EmployeeServiceImpl;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -13,15 +15,36 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.persistence.EntityManager;
 import java.util.*;
+import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class) // to tell Mockito that we are using Mockito annotations to mock the dependencies
 public class EmployeeServiceTests {
@@ -29,6 +52,24 @@ public class EmployeeServiceTests {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
+
+    // runs each batch right away, as a transaction would
+    @Spy
+    private TransactionOperations transactionOperations = new TransactionOperations() {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            return action.doInTransaction(new SimpleTransactionStatus());
+        }
+    };
+
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -59,9 +100,7 @@ public class EmployeeServiceTests {
             // configure stabbing for saveEmployee internal methods,
             // A stub is an object that provides predefined responses to specific calls or inputs,
             // without any verification or logic.
-            given(employeeRepository.findByEmail(employee.getEmail()))
-                    .willReturn(Optional.empty());
-            given(employeeRepository.save(employee)).willReturn(employee);
+            given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
 
         // when - action or the behaviour that we are going to test
         Employee savedEmployee = employeeService.saveEmployee(employee);
@@ -69,6 +108,7 @@ public class EmployeeServiceTests {
 
         // then -verify the output
         assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never()).findByEmail(anyString());
     }
 
     // JUnit test for saveEmployee method
@@ -76,8 +116,9 @@ public class EmployeeServiceTests {
     @Test
     public void givenExistingEmail_whenSaveEmployee_then() {
         // given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail()))
-                .willReturn(Optional.of(employee)); // employee exists already
+        given(employeeRepository.saveAndFlush(employee)) // employee exists already
+                .willThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("Duplicate entry", null, "employees." + Employee.EMAIL_UNIQUE_CONSTRAINT)));
 
         // when - action or the behaviour that we are going to test
         Assertions.assertThrows(ResourceNotFoundException.class, () -> {
@@ -85,7 +126,107 @@ public class EmployeeServiceTests {
         });
 
         // then -verify the output
-        verify(employeeRepository, never()).save(any(Employee.class));
+        verify(employeeRepository, never()).findByEmail(anyString());
+    }
+
+    // JUnit test for saveEmployee method when another constraint is violated
+    @DisplayName("JUnit test for saveEmployee method which rethrows other integrity violations")
+    @Test
+    public void givenMissingName_whenSaveEmployee_thenRethrowIntegrityViolation() {
+        // given - precondition or setup
+        given(employeeRepository.saveAndFlush(employee))
+                .willThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("Column 'first_name' cannot be null", null, null)));
+
+        // when - action or the behaviour that we are going to test
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> {
+            employeeService.saveEmployee(employee);
+        });
+    }
+
+    // JUnit test for saveEmployees (batch) method
+    @DisplayName("JUnit test for saveEmployees batch method")
+    @Test
+    public void givenEmployeesList_whenSaveEmployees_thenSaveNewAndRejectDuplicates() {
+        // given - precondition or setup
+        Employee existing = Employee.builder().firstName("Saad").lastName("Lotfi").email("saad.astekgroup.ma").build();
+        Employee blank = Employee.builder().firstName("No").lastName("Email").build();
+        given(employeeRepository.findExistingEmails(anyCollection()))
+                .willReturn(List.of(existing.getEmail()));
+
+        // when - action or the behaviour that we are going to test
+        EmployeeBatchResult result = employeeService.saveEmployees(List.of(employee, employee2, existing, blank));
+
+        // then -verify the output
+        assertThat(result.getReceived()).isEqualTo(4);
+        assertThat(result.getSaved()).isEqualTo(1);
+        assertThat(result.getRejected())
+                .extracting(EmployeeBatchResult.Rejection::getIndex)
+                .containsExactly(1, 2, 3);
+        verify(employeeRepository, times(1)).findExistingEmails(anyCollection());
+        verify(employeeRepository, times(1)).saveAll(List.of(employee));
+        verify(employeeRepository, never()).findByEmail(anyString());
+        verify(employeeRepository).flush();
+    }
+
+    // JUnit test for saveEmployees (batch) method with emails differing only in case
+    @DisplayName("JUnit test for saveEmployees batch method (emails ignore case)")
+    @Test
+    public void givenEmailsDifferingInCase_whenSaveEmployees_thenRejectedAsDuplicates() {
+        // given - precondition or setup
+        Employee upper = Employee.builder().firstName("F").lastName("Lotfi").email("FLotfi@astekgroup.ma").build();
+        Employee lower = Employee.builder().firstName("F").lastName("Lotfi").email("flotfi@astekgroup.ma").build();
+        Employee existing = Employee.builder().firstName("Saad").lastName("Lotfi").email("Saad@astekgroup.ma").build();
+        given(employeeRepository.findExistingEmails(List.of(upper.getEmail(), existing.getEmail())))
+                .willReturn(List.of("saad@ASTEKGROUP.ma"));
+
+        // when - action or the behaviour that we are going to test
+        EmployeeBatchResult result = employeeService.saveEmployees(List.of(upper, lower, existing));
+
+        // then -verify the output
+        assertThat(result.getSaved()).isEqualTo(1);
+        assertThat(result.getRejected())
+                .extracting(EmployeeBatchResult.Rejection::getIndex)
+                .containsExactly(1, 2);
+        verify(employeeRepository).saveAll(List.of(upper));
+    }
+
+    // JUnit test for saveEmployees (batch) method when the database refuses a row the checks let through
+    @DisplayName("JUnit test for saveEmployees batch method (unique index violation)")
+    @Test
+    public void givenRowRefusedOnFlush_whenSaveEmployees_thenOnlyItIsRejected() {
+        // given - precondition or setup
+        List<Employee> batch = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            batch.add(Employee.builder().firstName("F").lastName("Lotfi").email(i + "@astekgroup.ma").build());
+        }
+        Employee taken = batch.get(2);
+        List<List<Employee>> saveAllCalls = new ArrayList<>();
+        given(employeeRepository.saveAll(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            saveAllCalls.add(new ArrayList<>(employees));
+            employees.forEach(employee -> employee.setVersion(0L));
+            return employees;
+        });
+        doAnswer(invocation -> {
+            if (saveAllCalls.get(saveAllCalls.size() - 1).contains(taken)) {
+                throw new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("Duplicate entry", null, "employees." + Employee.EMAIL_UNIQUE_CONSTRAINT));
+            }
+            return null;
+        }).when(employeeRepository).flush();
+
+        // when - action or the behaviour that we are going to test
+        EmployeeBatchResult result = employeeService.saveEmployees(batch);
+
+        // then - the batch, then its halves, then the half with the refused row one by one
+        assertThat(result.getSaved()).isEqualTo(3);
+        assertThat(result.getRejected()).hasSize(1);
+        assertThat(result.getRejected().get(0).getIndex()).isEqualTo(2);
+        assertThat(result.getRejected().get(0).getReason()).isEqualTo("Employee already exist with given email:" + taken.getEmail());
+        assertThat(saveAllCalls).containsExactly(batch, batch.subList(0, 2), batch.subList(2, 4),
+                List.of(taken), List.of(batch.get(3)));
+        assertThat(taken.getVersion()).isNull();
     }
 
     // JUnit test for get all employees method
@@ -119,6 +260,91 @@ public class EmployeeServiceTests {
         assertThat(employeeList.size()).isEqualTo(0);
     }
 
+    // JUnit test for paginated get employees method
+    @DisplayName("JUnit test for paginated get employees method")
+    @Test
+    public void givenPageAndSize_whenGetEmployees_thenReturnSliceOrderedById() {
+        // given - precondition or setup
+        PageRequest pageRequest = PageRequest.of(1, 2, Sort.by("id"));
+        given(employeeRepository.findSliceBy(pageRequest))
+                .willReturn(new SliceImpl<>(List.of(employee, employee2), pageRequest, true));
+
+        // when - action or the behaviour that we are going to test
+        Slice<Employee> employees = employeeService.getEmployees(1, 2);
+
+        // then -verify the output
+        assertThat(employees.getContent()).hasSize(2);
+        assertThat(employees.hasNext()).isTrue();
+    }
+
+    // JUnit test for employees version method
+    @DisplayName("JUnit test for employees version method")
+    @Test
+    public void givenTableAggregate_whenGetEmployeesVersion_thenReturnFingerprint() {
+        // given - precondition or setup
+        EmployeeRepository.TableVersion tableVersion = mock(EmployeeRepository.TableVersion.class);
+        given(tableVersion.getCount()).willReturn(2L);
+        given(tableVersion.getMaxId()).willReturn(51L);
+        given(tableVersion.getVersionSum()).willReturn(3L);
+        given(employeeRepository.findTableVersion()).willReturn(tableVersion);
+
+        // when - action or the behaviour that we are going to test
+        String version = employeeService.getEmployeesVersion();
+
+        // then -verify the output
+        assertThat(version).isEqualTo("2-51-3");
+    }
+
+    // JUnit test for keyset get employees method
+    @DisplayName("JUnit test for keyset get employees method")
+    @Test
+    public void givenAfterIdAndLimit_whenGetEmployeesAfter_thenSeekPastAfterId() {
+        // given - precondition or setup
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(5L, PageRequest.of(0, 2)))
+                .willReturn(List.of(employee, employee2));
+
+        // when - action or the behaviour that we are going to test
+        List<Employee> employees = employeeService.getEmployeesAfter(5L, 2);
+
+        // then -verify the output
+        assertThat(employees).containsExactly(employee, employee2);
+        verify(employeeRepository, never()).findAll();
+    }
+
+    // JUnit test for export employees method
+    @DisplayName("JUnit test for export employees method")
+    @Test
+    public void givenEmployeesStream_whenExportEmployees_thenEachEmployeeIsWrittenAndDetached() {
+        // given - precondition or setup
+        given(employeeRepository.streamAllBy())
+                .willReturn(Stream.of(employee, employee2));
+        List<Employee> exported = new ArrayList<>();
+
+        // when - action or the behaviour that we are going to test
+        employeeService.exportEmployees(exported::add);
+
+        // then -verify the output
+        assertThat(exported).hasSize(2);
+        verify(entityManager, times(2)).detach(any(Employee.class));
+        verify(employeeRepository, never()).findAll();
+    }
+
+    // JUnit test for name search method
+    @DisplayName("JUnit test for name search method")
+    @Test
+    public void givenNamePrefixes_whenSearchEmployeesByName_thenReturnMatchingSlice() {
+        // given - precondition or setup
+        PageRequest pageRequest = PageRequest.of(0, 20, Sort.by("lastName", "firstName", "id"));
+        given(employeeRepository.findByLastNameStartingWithAndFirstNameStartingWith("Lot", "", pageRequest))
+                .willReturn(new SliceImpl<>(List.of(employee, employee2), pageRequest, false));
+
+        // when - action or the behaviour that we are going to test
+        Slice<Employee> employees = employeeService.searchEmployeesByName(null, "Lot", 0, 20);
+
+        // then -verify the output
+        assertThat(employees.getContent()).containsExactly(employee, employee2);
+    }
+
     // JUnit test for getting employee by id
     @DisplayName("JUnit test for getting employee by id")
     @Test
@@ -135,19 +361,125 @@ public class EmployeeServiceTests {
         assertThat(employeeById).isEqualTo(employee);
     }
 
+    // JUnit test for getting employee by id of another tenant
+    @DisplayName("JUnit test for getting employee by id of another tenant")
+    @Test
+    public void givenOtherTenantsEmployeeId_whenFindEmployeeById_thenReturnEmpty() {
+        // given - precondition or setup
+        employee.setTenantId("acme");
+        given(employeeRepository.findById(1L))
+                .willReturn(Optional.of(employee));
+
+        // when - action or the behaviour that we are going to test
+        Optional<Employee> asDefault = employeeService.getEmployeeById(1L);
+        Optional<Employee> asAcme = TenantContext.callAs("acme", () -> employeeService.getEmployeeById(1L));
+
+        // then -verify the output
+        assertThat(asDefault).isEmpty();
+        assertThat(asAcme).contains(employee);
+    }
+
+    // JUnit test for saveEmployee method as a tenant
+    @DisplayName("JUnit test for saveEmployee method which stamps the current tenant")
+    @Test
+    public void givenTenant_whenSaveEmployee_thenEmployeeBelongsToTenant() {
+        // given - precondition or setup
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+
+        // when - action or the behaviour that we are going to test
+        Employee savedEmployee = TenantContext.callAs("acme", () -> employeeService.saveEmployee(employee));
+
+        // then -verify the output
+        assertThat(savedEmployee.getTenantId()).isEqualTo("acme");
+        assertThat(TenantContext.current()).isEqualTo(Employee.DEFAULT_TENANT);
+    }
+
+    // JUnit test for getting employee by email
+    @DisplayName("JUnit test for getting employee by email")
+    @Test
+    public void givenEmployeeEmail_whenGetEmployeeByEmail_thenReturnEmployeeAndRecordLoad() {
+        // given - precondition or setup
+        given(employeeRepository.findByEmail(employee.getEmail()))
+                .willReturn(Optional.of(employee));
+
+        // when - action or the behaviour that we are going to test
+        Optional<Employee> employeeByEmail = employeeService.getEmployeeByEmail(employee.getEmail());
+
+        // then -verify the output
+        assertThat(employeeByEmail).contains(employee);
+        assertThat(meterRegistry.get("employee.cache.load").tag("cache", "employeeByEmail").timer().count())
+                .isEqualTo(1);
+    }
+
     // JUnit test for updateEmployee method
     @DisplayName("JUnit test for updateEmployee method")
     @Test
     public void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee() {
         // given - precondition or setup
-        given(employeeRepository.save(employee)).willReturn(employee);
         employee.setFirstName("changed");
+        given(employeeRepository.updateById(1L, "changed", employee.getLastName(), employee.getEmail()))
+                .willReturn(1);
+        given(employeeRepository.findVersionById(1L)).willReturn(Optional.of(3L));
 
         // when - action or the behaviour that we are going to test
-        Employee updatedEmployee = employeeService.updateEmployee(employee);
+        Optional<Employee> updatedEmployee = employeeService.updateEmployee(1L, employee, null);
 
         // then -verify the output
-        assertThat(updatedEmployee.getFirstName()).isEqualTo("changed");
+        assertThat(updatedEmployee).isPresent();
+        assertThat(updatedEmployee.get().getFirstName()).isEqualTo("changed");
+        assertThat(updatedEmployee.get().getId()).isEqualTo(1L);
+        assertThat(updatedEmployee.get().getVersion()).isEqualTo(3L);
+        verify(employeeRepository, never()).findById(anyLong());
+        verify(employeeRepository, never()).save(any(Employee.class));
+        verify(employeeRepository).index(updatedEmployee.get());
+    }
+
+    // JUnit test for updateEmployee method when the employee does not exist
+    @DisplayName("JUnit test for updateEmployee method (negative scenario)")
+    @Test
+    public void givenInvalidEmployeeId_whenUpdateEmployee_thenReturnEmpty() {
+        // given - precondition or setup
+        given(employeeRepository.updateById(1L, employee.getFirstName(), employee.getLastName(), employee.getEmail()))
+                .willReturn(0);
+
+        // when - action or the behaviour that we are going to test
+        Optional<Employee> updatedEmployee = employeeService.updateEmployee(1L, employee, null);
+
+        // then -verify the output
+        assertThat(updatedEmployee).isEmpty();
+        verify(employeeRepository, never()).findVersionById(anyLong());
+        verify(employeeRepository, never()).index(any(Employee.class));
+    }
+
+    // JUnit test for conditional updateEmployee method
+    @DisplayName("JUnit test for conditional updateEmployee method")
+    @Test
+    public void givenExpectedVersion_whenUpdateEmployee_thenReturnNextVersion() {
+        // given - precondition or setup
+        given(employeeRepository.updateByIdAndVersion(1L, 4L, employee.getFirstName(), employee.getLastName(), employee.getEmail()))
+                .willReturn(1);
+
+        // when - action or the behaviour that we are going to test
+        Optional<Employee> updatedEmployee = employeeService.updateEmployee(1L, employee, 4L);
+
+        // then -verify the output
+        assertThat(updatedEmployee.get().getVersion()).isEqualTo(5L);
+        verify(employeeRepository, never()).findVersionById(anyLong());
+    }
+
+    // JUnit test for conditional updateEmployee method with a stale version
+    @DisplayName("JUnit test for conditional updateEmployee method which throws Exception on stale version")
+    @Test
+    public void givenStaleVersion_whenUpdateEmployee_thenThrowOptimisticLockingFailure() {
+        // given - precondition or setup
+        given(employeeRepository.findVersionById(1L)).willReturn(Optional.of(5L));
+        given(employeeRepository.updateByIdAndVersion(1L, 4L, employee.getFirstName(), employee.getLastName(), employee.getEmail()))
+                .willReturn(0);
+
+        // when - action or the behaviour that we are going to test
+        Assertions.assertThrows(ObjectOptimisticLockingFailureException.class, () -> {
+            employeeService.updateEmployee(1L, employee, 4L);
+        });
     }
 
     // JUnit test for deleteEmployee method
@@ -156,13 +488,94 @@ public class EmployeeServiceTests {
     public void givenEmployeeId_whenDeleteEmployee_thenEmployeeDeleted() {
         // given - precondition or setup
         long employeeId = 1L;
-        willDoNothing().given(employeeRepository).deleteById(employeeId);
+        given(employeeRepository.deleteEmployeeById(employeeId)).willReturn(1);
+
+        // when - action or the behaviour that we are going to test
+        boolean deleted = employeeService.deleteEmployee(employeeId);
+
+        // then -verify the output
+        assertThat(deleted).isTrue();
+        verify(employeeRepository, times(1)).deleteEmployeeById(employeeId);
+        verify(employeeRepository, never()).deleteById(employeeId);
+        verify(employeeRepository).unindex(employeeId);
+    }
+
+    // JUnit test for deleteEmployee method when the employee does not exist
+    @DisplayName("JUnit test for deleteEmployee method (negative scenario)")
+    @Test
+    public void givenInvalidEmployeeId_whenDeleteEmployee_thenReturnFalse() {
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeRepository.deleteEmployeeById(employeeId)).willReturn(0);
+
+        // when - action or the behaviour that we are going to test
+        boolean deleted = employeeService.deleteEmployee(employeeId);
+
+        // then -verify the output
+        assertThat(deleted).isFalse();
+        verify(employeeRepository, never()).unindex(anyLong());
+    }
+
+    // JUnit test for searchEmployees method
+    @DisplayName("JUnit test for searchEmployees method")
+    @Test
+    public void givenQuery_whenSearchEmployees_thenSearchesEachWordOfTenant() {
+        // given - precondition or setup
+        given(employeeRepository.search(List.of("Fir", "lotfi", "astekgroup", "ma"), Employee.DEFAULT_TENANT, 2, 3))
+                .willReturn(List.of(employee, employee2, employee));
 
         // when - action or the behaviour that we are going to test
-        employeeService.deleteEmployee(employeeId);
+        Slice<Employee> employees = employeeService.searchEmployees(" Fir, lotfi  lotfi@astekgroup.ma", 1, 2);
+
+        // then -verify the output
+        assertThat(employees.getContent()).containsExactly(employee, employee2);
+        assertThat(employees.hasNext()).isTrue();
+    }
+
+    // JUnit test for searchEmployees method past the deepest page served (10000 hits)
+    @DisplayName("JUnit test for searchEmployees method (page too deep)")
+    @Test
+    public void givenPageBeyondMaxOffset_whenSearchEmployees_thenEmptyWithoutSearching() {
+        // when - action or the behaviour that we are going to test
+        Slice<Employee> overflowing = employeeService.searchEmployees("lotfi", Integer.MAX_VALUE, 100);
+        Slice<Employee> tooDeep = employeeService.searchEmployees("lotfi", 500, 20);
+
+        // then -verify the output
+        assertThat(overflowing.getContent()).isEmpty();
+        assertThat(overflowing.hasNext()).isFalse();
+        assertThat(tooDeep.getContent()).isEmpty();
+        verify(employeeRepository, never()).search(any(), any(), anyInt(), anyInt());
+    }
+
+    // JUnit test for searchEmployees method on the last page served
+    @DisplayName("JUnit test for searchEmployees method (last page served)")
+    @Test
+    public void givenLastPageBeforeMaxOffset_whenSearchEmployees_thenNoNextPage() {
+        // given - precondition or setup
+        // hits 9998 and 9999, the last ones served
+        int page = 4999;
+        given(employeeRepository.search(List.of("lotfi"), Employee.DEFAULT_TENANT, page * 2, 3))
+                .willReturn(List.of(employee, employee2, employee));
+
+        // when - action or the behaviour that we are going to test
+        Slice<Employee> employees = employeeService.searchEmployees("lotfi", page, 2);
+
+        // then -verify the output
+        assertThat(employees.getContent()).containsExactly(employee, employee2);
+        assertThat(employees.hasNext()).isFalse();
+    }
+
+    // JUnit test for searchEmployees method without a word to search
+    @DisplayName("JUnit test for searchEmployees method (no words)")
+    @Test
+    public void givenOnlySeparators_whenSearchEmployees_thenEmptyWithoutSearching() {
+        // when - action or the behaviour that we are going to test
+        Slice<Employee> employees = employeeService.searchEmployees("@ . -", 0, 20);
 
         // then -verify the output
-        verify(employeeRepository, times(1)).deleteById(employeeId);
+        assertThat(employees.getContent()).isEmpty();
+        assertThat(employees.hasNext()).isFalse();
+        verify(employeeRepository, never()).search(any(), any(), anyInt(), anyInt());
     }
 
 }
@@ -0,0 +1,204 @@
+package com.example.springboot.service;
+
+import com.example.springboot.config.TenantContext;
+import com.example.springboot.exception.ResourceNotFoundException;
+import com.example.springboot.exception.WriteQueueFullException;
+import com.example.springboot.model.Employee;
+import com.example.springboot.model.EmployeeBatchResult;
+import com.example.springboot.model.EmployeeWriteStatus;
+import com.example.springboot.service.impl.EmployeeWriteBehindServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeWriteBehindServiceTests {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private EmployeeWriteBehindServiceImpl writeBehindService;
+
+    @BeforeEach
+    public void setup(){
+        // small queue and batches, a long flush interval so batches are only cut by size or shutdown
+        writeBehindService = new EmployeeWriteBehindServiceImpl(employeeService, true, 3, 2, 10_000, 10, 5_000);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        writeBehindService.stop();
+    }
+
+    private static Employee employee(String email){
+        return Employee.builder().firstName("Firdaouss").lastName("Lotfi").email(email).build();
+    }
+
+    private EmployeeWriteStatus awaitCompletion(String trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        EmployeeWriteStatus status = writeBehindService.getStatus(trackingId).orElseThrow();
+        while (status.getState() == EmployeeWriteStatus.State.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = writeBehindService.getStatus(trackingId).orElseThrow();
+        }
+        return status;
+    }
+
+    @DisplayName("JUnit test for enqueue method (flushed as one batch)")
+    @Test
+    public void givenTwoEmployees_whenEnqueue_thenSavedInOneBatch() throws InterruptedException {
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            for (int i = 0; i < employees.size(); i++) {
+                employees.get(i).setId(i + 1);
+            }
+            return EmployeeBatchResult.builder().received(employees.size()).saved(employees.size())
+                    .rejected(Collections.emptyList()).build();
+        });
+        writeBehindService.start();
+
+        EmployeeWriteStatus first = writeBehindService.enqueue(employee("a@gmail.com"));
+        EmployeeWriteStatus second = writeBehindService.enqueue(employee("b@gmail.com"));
+
+        assertThat(first.getState()).isEqualTo(EmployeeWriteStatus.State.PENDING);
+        assertThat(awaitCompletion(first.getTrackingId()).getEmployeeId()).isEqualTo(1L);
+        assertThat(awaitCompletion(second.getTrackingId()).getEmployeeId()).isEqualTo(2L);
+        verify(employeeService, times(1)).saveEmployees(anyList());
+    }
+
+    @DisplayName("JUnit test for enqueue method (rejected by the batch)")
+    @Test
+    public void givenDuplicateEmail_whenEnqueue_thenRejected() throws InterruptedException {
+        given(employeeService.saveEmployees(anyList())).willReturn(EmployeeBatchResult.builder()
+                .received(2).saved(1)
+                .rejected(List.of(new EmployeeBatchResult.Rejection(1, "a@gmail.com", "Duplicate email in request:a@gmail.com")))
+                .build());
+        writeBehindService.start();
+
+        EmployeeWriteStatus first = writeBehindService.enqueue(employee("a@gmail.com"));
+        EmployeeWriteStatus second = writeBehindService.enqueue(employee("a@gmail.com"));
+
+        assertThat(awaitCompletion(first.getTrackingId()).getState()).isEqualTo(EmployeeWriteStatus.State.SAVED);
+        EmployeeWriteStatus rejected = awaitCompletion(second.getTrackingId());
+        assertThat(rejected.getState()).isEqualTo(EmployeeWriteStatus.State.REJECTED);
+        assertThat(rejected.getReason()).contains("Duplicate email");
+    }
+
+    @DisplayName("JUnit test for flush (failed batch retried one by one)")
+    @Test
+    public void givenFailingBatch_whenFlush_thenRetriedIndividually() throws InterruptedException {
+        given(employeeService.saveEmployees(anyList())).willThrow(new IllegalStateException("batch failed"));
+        given(employeeService.saveEmployee(any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getEmail().equals("b@gmail.com")) {
+                throw new ResourceNotFoundException("Employee already exist with given email:b@gmail.com");
+            }
+            employee.setId(7L);
+            return employee;
+        });
+        writeBehindService.start();
+
+        EmployeeWriteStatus first = writeBehindService.enqueue(employee("a@gmail.com"));
+        EmployeeWriteStatus second = writeBehindService.enqueue(employee("b@gmail.com"));
+
+        assertThat(awaitCompletion(first.getTrackingId()).getEmployeeId()).isEqualTo(7L);
+        assertThat(awaitCompletion(second.getTrackingId()).getState()).isEqualTo(EmployeeWriteStatus.State.FAILED);
+    }
+
+    @DisplayName("JUnit test for enqueue method (queue full)")
+    @Test
+    public void givenFullQueue_whenEnqueue_thenThrowsWriteQueueFullException() throws InterruptedException {
+        // hold the flusher inside its first batch so nothing else leaves the queue
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            flushing.countDown();
+            release.await();
+            return EmployeeBatchResult.builder().rejected(Collections.emptyList()).build();
+        });
+        writeBehindService.start();
+        writeBehindService.enqueue(employee("a@gmail.com"));
+        writeBehindService.enqueue(employee("b@gmail.com"));
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // capacity is 3
+        for (int i = 0; i < 3; i++) {
+            writeBehindService.enqueue(employee(i + "@gmail.com"));
+        }
+        Assertions.assertThrows(WriteQueueFullException.class, () -> writeBehindService.enqueue(employee("c@gmail.com")));
+        release.countDown();
+    }
+
+    @DisplayName("JUnit test for stop method (queued employees are drained)")
+    @Test
+    public void givenQueuedEmployees_whenStop_thenFlushedBeforeReturning() {
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> EmployeeBatchResult.builder()
+                .received(((List<?>) invocation.getArgument(0)).size())
+                .rejected(Collections.emptyList()).build());
+        writeBehindService.start();
+
+        EmployeeWriteStatus status = writeBehindService.enqueue(employee("a@gmail.com"));
+        writeBehindService.stop();
+
+        assertThat(writeBehindService.getStatus(status.getTrackingId()).orElseThrow().getState())
+                .isEqualTo(EmployeeWriteStatus.State.SAVED);
+        Assertions.assertThrows(IllegalStateException.class, () -> writeBehindService.enqueue(employee("b@gmail.com")));
+    }
+
+    @DisplayName("JUnit test for enqueue method (one batch per tenant, run as that tenant)")
+    @Test
+    public void givenTwoTenants_whenEnqueue_thenEachFlushedAsItsTenant() {
+        Map<String, String> tenantByEmail = new ConcurrentHashMap<>();
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            employees.forEach(employee -> tenantByEmail.put(employee.getEmail(), TenantContext.current()));
+            return EmployeeBatchResult.builder().received(employees.size()).saved(employees.size())
+                    .rejected(Collections.emptyList()).build();
+        });
+        writeBehindService.start();
+
+        EmployeeWriteStatus acme = TenantContext.callAs("acme", () -> writeBehindService.enqueue(employee("a@gmail.com")));
+        EmployeeWriteStatus globex = TenantContext.callAs("globex", () -> writeBehindService.enqueue(employee("b@gmail.com")));
+
+        writeBehindService.stop();
+
+        assertThat(TenantContext.callAs("acme", () -> writeBehindService.getStatus(acme.getTrackingId())).orElseThrow()
+                .getState()).isEqualTo(EmployeeWriteStatus.State.SAVED);
+        assertThat(TenantContext.callAs("globex", () -> writeBehindService.getStatus(globex.getTrackingId())).orElseThrow()
+                .getState()).isEqualTo(EmployeeWriteStatus.State.SAVED);
+        assertThat(tenantByEmail).containsEntry("a@gmail.com", "acme").containsEntry("b@gmail.com", "globex");
+        verify(employeeService, times(2)).saveEmployees(anyList());
+        // a tracking id is only visible to the tenant that enqueued it
+        assertThat(writeBehindService.getStatus(acme.getTrackingId())).isEmpty();
+        assertThat(TenantContext.callAs("globex", () -> writeBehindService.getStatus(acme.getTrackingId()))).isEmpty();
+    }
+
+    @DisplayName("JUnit test for enqueue method (disabled)")
+    @Test
+    public void givenDisabled_whenEnqueue_thenThrowsException() {
+        writeBehindService = new EmployeeWriteBehindServiceImpl(employeeService, false, 3, 2, 50, 10, 5_000);
+        writeBehindService.start();
+
+        assertThat(writeBehindService.isEnabled()).isFalse();
+        assertThat(writeBehindService.isRunning()).isFalse();
+        Assertions.assertThrows(IllegalStateException.class, () -> writeBehindService.enqueue(employee("a@gmail.com")));
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.springboot.service;
+
+import com.example.springboot.config.GlobalIdAllocator;
+import com.example.springboot.config.IdShardRoutingStrategy;
+import com.example.springboot.config.ShardRoutingDataSource;
+import com.example.springboot.exception.ResourceNotFoundException;
+import com.example.springboot.model.Employee;
+import com.example.springboot.model.EmployeeBatchResult;
+import com.example.springboot.repository.EmployeeRepository;
+import com.example.springboot.service.impl.EmployeeServiceImpl;
+import com.example.springboot.service.impl.ShardedEmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ShardedEmployeeServiceTests {
+
+    private static final int SHARDS = 3;
+
+    @Mock
+    private EmployeeServiceImpl delegate;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private GlobalIdAllocator idAllocator;
+
+    private ShardedEmployeeService shardedService;
+
+    @BeforeEach
+    public void setup() {
+        shardedService = new ShardedEmployeeService(delegate, employeeRepository, idAllocator,
+                new IdShardRoutingStrategy(), SHARDS, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        shardedService.close();
+    }
+
+    private static Employee employee(long id, String lastName) {
+        return Employee.builder().id(id).firstName("Firdaouss").lastName(lastName).email(lastName + "@astekgroup.ma").build();
+    }
+
+    @DisplayName("JUnit test for saveEmployee: the new employee gets a global id and is stored on the shard in it")
+    @Test
+    public void givenNewEmployee_whenSaveEmployee_thenStoredOnTheShardOfItsId() {
+        // given - sequence 7 lands on shard 7 % 3 = 1
+        given(delegate.getEmployeeByEmail(anyString())).willReturn(Optional.empty());
+        given(idAllocator.next()).willReturn(7L);
+        List<Integer> savedOn = new ArrayList<>();
+        given(delegate.saveEmployee(any(Employee.class))).willAnswer(invocation -> {
+            savedOn.add(ShardRoutingDataSource.currentShard());
+            return invocation.getArgument(0);
+        });
+
+        // when
+        Employee saved = shardedService.saveEmployee(employee(0, "Lotfi"));
+
+        // then
+        assertThat(saved.getId()).isEqualTo(ShardRoutingDataSource.shardedId(7, 1));
+        assertThat(savedOn).containsExactly(1);
+    }
+
+    @DisplayName("JUnit test for saveEmployee: an email used on another shard is rejected")
+    @Test
+    public void givenEmailOnAnotherShard_whenSaveEmployee_thenThrowsException() {
+        // given
+        given(delegate.getEmployeeByEmail("Lotfi@astekgroup.ma")).willAnswer(invocation ->
+                ShardRoutingDataSource.currentShard() == 2 ? Optional.of(employee(ShardRoutingDataSource.shardedId(3, 2), "Lotfi")) : Optional.empty());
+
+        // when / then
+        assertThatThrownBy(() -> shardedService.saveEmployee(employee(0, "Lotfi")))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(delegate, never()).saveEmployee(any(Employee.class));
+    }
+
+    @DisplayName("JUnit test for getEmployeeById: only the shard in the id is asked")
+    @Test
+    public void givenShardedId_whenGetEmployeeById_thenAsksThatShardOnly() {
+        // given
+        long id = ShardRoutingDataSource.shardedId(42, 2);
+        List<Integer> askedOn = new ArrayList<>();
+        given(delegate.getEmployeeById(id)).willAnswer(invocation -> {
+            askedOn.add(ShardRoutingDataSource.currentShard());
+            return Optional.of(employee(id, "Lotfi"));
+        });
+
+        // when
+        Optional<Employee> found = shardedService.getEmployeeById(id);
+        Optional<Employee> notAShard = shardedService.getEmployeeById(ShardRoutingDataSource.shardedId(42, 5));
+
+        // then
+        assertThat(found).isPresent();
+        assertThat(askedOn).containsExactly(2);
+        assertThat(notAShard).isEmpty();
+    }
+
+    @DisplayName("JUnit test for getEmployees: the pages of every shard are merged in id order")
+    @Test
+    public void givenEmployeesOnEveryShard_whenGetSecondPage_thenReturnsMergedPage() {
+        // given - shard s holds ids 3n + s for n < 4, i.e. 0..11 spread round robin
+        given(delegate.getEmployees(eq(0), anyInt())).willAnswer(invocation -> {
+            int shard = ShardRoutingDataSource.currentShard();
+            int size = invocation.getArgument(1);
+            List<Employee> rows = new ArrayList<>();
+            for (int n = 0; n < 4 && rows.size() < size; n++) {
+                rows.add(employee(3L * n + shard, "Lotfi" + n));
+            }
+            return new SliceImpl<>(rows, PageRequest.of(0, size), rows.size() == size && size < 4);
+        });
+
+        // when
+        Slice<Employee> page = shardedService.getEmployees(1, 4);
+        Slice<Employee> last = shardedService.getEmployees(2, 4);
+
+        // then
+        assertThat(page.getContent()).extracting(Employee::getId).containsExactly(4L, 5L, 6L, 7L);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting(Employee::getId).containsExactly(8L, 9L, 10L, 11L);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @DisplayName("JUnit test for getEmployees: pages past the offset cap are empty and no shard is asked")
+    @Test
+    public void givenPagePastMaxOffset_whenGetEmployees_thenEmptyWithoutAskingShards() {
+        // when - page 200 of 50 starts at offset 10 000
+        Slice<Employee> page = shardedService.getEmployees(200, 50);
+        Slice<Employee> search = shardedService.searchEmployeesByName("Firdaouss", "Lotfi", Integer.MAX_VALUE, 50);
+
+        // then
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.hasNext()).isFalse();
+        assertThat(search.getContent()).isEmpty();
+        verify(delegate, never()).getEmployees(anyInt(), anyInt());
+        verify(delegate, never()).searchEmployeesByName(anyString(), anyString(), anyInt(), anyInt());
+    }
+
+    @DisplayName("JUnit test for saveEmployees: rejections of every shard keep their position in the request")
+    @Test
+    public void givenBatchWithExistingAndRepeatedEmails_whenSaveEmployees_thenRejectionsReferToTheRequest() {
+        // given - "b" already exists on some shard, "a" is repeated
+        List<Employee> batch = List.of(employee(0, "a"), employee(0, "b"), employee(0, "a"), employee(0, "c"), employee(0, "d"));
+        given(employeeRepository.findExistingEmails(anyCollection())).willAnswer(invocation ->
+                ShardRoutingDataSource.currentShard() == 1 ? List.of("b@astekgroup.ma") : List.of());
+        long[] sequence = {0};
+        given(idAllocator.next()).willAnswer(invocation -> sequence[0]++);
+        // the shard refuses its first employee, as a racing insert would make it
+        given(delegate.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            boolean refuseFirst = ShardRoutingDataSource.currentShard() == 2;
+            return EmployeeBatchResult.builder()
+                    .received(employees.size())
+                    .saved(refuseFirst ? employees.size() - 1 : employees.size())
+                    .rejected(refuseFirst
+                            ? List.of(new EmployeeBatchResult.Rejection(0, employees.get(0).getEmail(), "taken"))
+                            : List.of())
+                    .build();
+        });
+
+        // when
+        EmployeeBatchResult result = shardedService.saveEmployees(new ArrayList<>(batch));
+
+        // then - a, c and d get sequences 0, 1 and 2, so d lands on shard 2 and is refused there
+        assertThat(result.getRejected()).extracting(EmployeeBatchResult.Rejection::getIndex).containsExactly(1, 2, 4);
+        assertThat(result.getRejected().get(2).getReason()).isEqualTo("taken");
+        assertThat(result.getReceived()).isEqualTo(5);
+        assertThat(result.getSaved()).isEqualTo(2);
+        assertThat(batch.get(3).getId()).isEqualTo(ShardRoutingDataSource.shardedId(1, 1));
+    }
+
+    @DisplayName("JUnit test for deleteEmployee: an id without a shard deletes nothing")
+    @Test
+    public void givenIdOfNoShard_whenDeleteEmployee_thenReturnsFalse() {
+        // when
+        boolean deleted = shardedService.deleteEmployee(ShardRoutingDataSource.shardedId(1, SHARDS));
+
+        // then
+        assertThat(deleted).isFalse();
+        verify(delegate, never()).deleteEmployee(anyLong());
+    }
+}